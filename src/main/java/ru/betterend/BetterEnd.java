@@ -1,7 +1,9 @@
 package ru.betterend;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.util.Identifier;
 import ru.betterend.api.BetterEndPlugin;
@@ -16,14 +18,21 @@ import ru.betterend.recipe.SmithingRecipes;
 import ru.betterend.registry.EndBiomes;
 import ru.betterend.registry.EndBlockEntities;
 import ru.betterend.registry.EndBlocks;
+import ru.betterend.registry.EndCommands;
 import ru.betterend.registry.EndEntities;
 import ru.betterend.registry.EndFeatures;
 import ru.betterend.registry.EndItems;
 import ru.betterend.registry.EndSounds;
 import ru.betterend.registry.EndStructures;
 import ru.betterend.registry.EndTags;
+import ru.betterend.util.AsyncGrowth;
 import ru.betterend.util.Logger;
+import ru.betterend.util.StartupHelper;
+import ru.betterend.util.TerrainDecayHelper;
+import ru.betterend.world.biome.EndBiome;
 import ru.betterend.world.generator.BetterEndBiomeSource;
+import ru.betterend.world.generator.GeneratorProfiler;
+import ru.betterend.world.generator.Pregenerator;
 
 public class BetterEnd implements ModInitializer {
 	public static final String MOD_ID = "betterend";
@@ -32,28 +41,45 @@ public class BetterEnd implements ModInitializer {
 	
 	@Override
 	public void onInitialize() {
-		EndSounds.register();
-		EndItems.register();
-		EndBlocks.register();
-		EndBlockEntities.register();
-		EndFeatures.register();
-		EndEntities.register();
-		EndBiomes.register();
-		BetterEndBiomeSource.register();
-		EndTags.register();
-		EndEnchantments.register();
-		EndPotions.register();
-		CraftingRecipes.register();
-		FurnaceRecipes.register();
-		AlloyingRecipes.register();
-		SmithingRecipes.register();
-		InfusionRecipes.register();
-		EndStructures.register();
+		StartupHelper.phase("resource preload", () -> EndBiome.preloadResources(MOD_ID));
+		StartupHelper.phase("sounds", EndSounds::register);
+		StartupHelper.phase("items", EndItems::register);
+		StartupHelper.phase("blocks", EndBlocks::register);
+		StartupHelper.phase("block entities", EndBlockEntities::register);
+		StartupHelper.phase("features", EndFeatures::register);
+		StartupHelper.phase("entities", EndEntities::register);
+		StartupHelper.phase("biomes", EndBiomes::register);
+		StartupHelper.phase("biome source", BetterEndBiomeSource::register);
+		StartupHelper.phase("tags", EndTags::register);
+		StartupHelper.phase("enchantments", EndEnchantments::register);
+		StartupHelper.phase("potions", EndPotions::register);
+		StartupHelper.phase("crafting recipes", CraftingRecipes::register);
+		StartupHelper.phase("furnace recipes", FurnaceRecipes::register);
+		StartupHelper.phase("alloying recipes", AlloyingRecipes::register);
+		StartupHelper.phase("smithing recipes", SmithingRecipes::register);
+		StartupHelper.phase("infusion recipes", InfusionRecipes::register);
+		StartupHelper.phase("structures", EndStructures::register);
+		StartupHelper.phase("commands", EndCommands::register);
 		
-		FabricLoader.getInstance().getEntrypoints("betterend", BetterEndPlugin.class).forEach(BetterEndPlugin::register);
+		StartupHelper.phase("plugins", () -> {
+			FabricLoader.getInstance().getEntrypoints("betterend", BetterEndPlugin.class).forEach(BetterEndPlugin::register);
+		});
+		StartupHelper.finish();
 		ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
 			CONFIG.saveChanges();
 		});
+		ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+			AsyncGrowth.onServerStopped();
+			Pregenerator.onServerStopped();
+			TerrainDecayHelper.onServerStopped();
+		});
+		ServerTickEvents.END_SERVER_TICK.register(server -> {
+			GeneratorProfiler.onServerTick();
+			AsyncGrowth.onServerTick();
+			Pregenerator.onServerTick();
+			TerrainDecayHelper.onServerTick();
+		});
+		ServerChunkEvents.CHUNK_LOAD.register(TerrainDecayHelper::onChunkLoad);
 	}
 	
 	public static Identifier makeID(String path) {
@@ -27,15 +27,19 @@ import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldAccess;
 import net.minecraft.world.WorldView;
 import net.minecraft.world.chunk.light.ChunkLightProvider;
 import ru.betterend.blocks.basis.BlockBase;
+import ru.betterend.util.MHelper;
 
 public class BlockTerrain extends BlockBase {
+	private static final int DECAY_MIN_DELAY = 100;
+	private static final int DECAY_MAX_DELAY = 400;
 	private Block pathBlock;
 	
 	public BlockTerrain(MaterialColor color) {
-		super(FabricBlockSettings.copyOf(Blocks.END_STONE).materialColor(color).sounds(BlockSounds.TERRAIN_SOUND).ticksRandomly());
+		super(FabricBlockSettings.copyOf(Blocks.END_STONE).materialColor(color).sounds(BlockSounds.TERRAIN_SOUND));
 	}
 	
 	public void setPathBlock(Block roadBlock) {
@@ -67,12 +71,49 @@ public class BlockTerrain extends BlockBase {
 	}
 	
 	@Override
-	public void randomTick(BlockState state, ServerWorld world, BlockPos pos, Random random) {
-		if (random.nextInt(16) == 0 && !canSurvive(state, world, pos)) {
+	public void onBlockAdded(BlockState state, World world, BlockPos pos, BlockState oldState, boolean notify) {
+		if (!world.isClient) {
+			scheduleDecay(state, world, pos);
+		}
+	}
+	
+	@Override
+	public BlockState getStateForNeighborUpdate(BlockState state, Direction facing, BlockState neighborState, WorldAccess world, BlockPos pos, BlockPos neighborPos) {
+		if (facing == Direction.UP && !world.isClient()) {
+			scheduleDecay(state, world, pos);
+		}
+		return state;
+	}
+	
+	@Override
+	public void scheduledTick(BlockState state, ServerWorld world, BlockPos pos, Random random) {
+		if (!canSurvive(state, world, pos)) {
 			world.setBlockState(pos, Blocks.END_STONE.getDefaultState());
 		}
 	}
 	
+	/**
+	 * Check decay of terrain block that was placed or covered without updates (worldgen post-pass, old chunks).
+	 * @param world - {@link WorldAccess}
+	 * @param pos - {@link BlockPos} of block
+	 * @param state - current {@link BlockState} at position, other blocks are ignored
+	 */
+	public static void checkDecay(WorldAccess world, BlockPos pos, BlockState state) {
+		if (state.getBlock() instanceof BlockTerrain) {
+			((BlockTerrain) state.getBlock()).scheduleDecay(state, world, pos);
+		}
+	}
+	
+	/**
+	 * Decay is checked when block above is changed, blocks covered without updates are checked
+	 * by {@link #checkDecay(WorldAccess, BlockPos, BlockState)}. Delay is random to keep decay of large areas gradual.
+	 */
+	private void scheduleDecay(BlockState state, WorldAccess world, BlockPos pos) {
+		if (!canSurvive(state, world, pos)) {
+			world.getBlockTickScheduler().schedule(pos, this, MHelper.randRange(DECAY_MIN_DELAY, DECAY_MAX_DELAY, world.getRandom()));
+		}
+	}
+	
 	public static boolean canSurvive(BlockState state, WorldView worldView, BlockPos pos) {
 	      BlockPos blockPos = pos.up();
 	      BlockState blockState = worldView.getBlockState(blockPos);
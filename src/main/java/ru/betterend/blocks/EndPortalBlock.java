@@ -23,6 +23,7 @@ import ru.betterend.client.render.ERenderLayer;
 import ru.betterend.interfaces.IRenderTypeable;
 import ru.betterend.interfaces.TeleportingEntity;
 import ru.betterend.registry.EndParticles;
+import ru.betterend.rituals.PortalLinks;
 
 public class EndPortalBlock extends NetherPortalBlock implements IRenderTypeable {
 	public EndPortalBlock() {
@@ -66,7 +67,7 @@ public class EndPortalBlock extends NetherPortalBlock implements IRenderTypeable
 			if (teleEntity.hasCooldown()) return;
 			boolean isOverworld = world.getRegistryKey().equals(World.OVERWORLD);
 			ServerWorld destination = ((ServerWorld) world).getServer().getWorld(isOverworld ? World.END : World.OVERWORLD);
-			BlockPos exitPos = this.findExitPos(destination, pos, entity);
+			BlockPos exitPos = this.getExitPos((ServerWorld) world, destination, state, pos);
 			if (exitPos == null) return;
 			if (entity instanceof ServerPlayerEntity) {
 				ServerPlayerEntity player = (ServerPlayerEntity) entity;
@@ -80,12 +81,70 @@ public class EndPortalBlock extends NetherPortalBlock implements IRenderTypeable
 		}
 	}
 	
+	/**
+	 * Remove link of the portal when its first block is removed. Corner is searched from removed position
+	 * through the rest of portal blocks, which are still in place at that moment.
+	 */
+	@Override
+	public void onStateReplaced(BlockState state, World world, BlockPos pos, BlockState newState, boolean moved) {
+		super.onStateReplaced(state, world, pos, newState, moved);
+		if (world instanceof ServerWorld && !newState.isOf(this)) {
+			PortalLinks.get((ServerWorld) world).removeLink(this.getCorner(world, pos, state.get(AXIS)));
+		}
+	}
+	
 	@Override
 	public ERenderLayer getRenderLayer() {
 		return ERenderLayer.TRANSLUCENT;
 	}
 	
-	private BlockPos findExitPos(ServerWorld world, BlockPos pos, Entity entity) {
+	/**
+	 * Get exit position for portal at specified position. Linked target portal is used if it still exists,
+	 * otherwise target world is searched for any portal and new link is stored.
+	 */
+	private BlockPos getExitPos(ServerWorld world, ServerWorld destination, BlockState state, BlockPos pos) {
+		PortalLinks links = PortalLinks.get(world);
+		BlockPos corner = this.getCorner(world, pos, state.get(AXIS));
+		BlockPos target = links.getLink(corner);
+		if (target != null) {
+			BlockState targetState = destination.getBlockState(target);
+			if (targetState.isOf(this)) {
+				return this.getExit(target, targetState);
+			}
+			links.removeLink(corner);
+		}
+		target = this.findExitPortal(destination, pos);
+		if (target == null) {
+			return null;
+		}
+		links.setLink(corner, target);
+		return this.getExit(target, destination.getBlockState(target));
+	}
+	
+	/**
+	 * Lowest portal block of the portal, used as a key for links.
+	 */
+	private BlockPos getCorner(World world, BlockPos pos, Direction.Axis axis) {
+		Direction side = Direction.from(axis, Direction.AxisDirection.NEGATIVE);
+		BlockPos.Mutable corner = pos.mutableCopy();
+		while (world.getBlockState(corner.down()).isOf(this)) {
+			corner.move(Direction.DOWN);
+		}
+		while (world.getBlockState(corner.offset(side)).isOf(this)) {
+			corner.move(side);
+		}
+		return corner.toImmutable();
+	}
+	
+	private BlockPos getExit(BlockPos portal, BlockState state) {
+		if (state.get(AXIS).equals(Direction.Axis.X)) {
+			return portal.add(0, 0, 1);
+		} else {
+			return portal.add(1, 0, 0);
+		}
+	}
+	
+	private BlockPos findExitPortal(ServerWorld world, BlockPos pos) {
 		Registry<DimensionType> registry = world.getRegistryManager().getDimensionTypes();
 		double mult = registry.get(DimensionType.THE_END_ID).getCoordinateScale();
 		BlockPos.Mutable basePos;
@@ -102,11 +161,7 @@ public class EndPortalBlock extends NetherPortalBlock implements IRenderTypeable
 				while(checkPos.getY() < world.getHeight()) {
 					BlockState state = world.getBlockState(checkPos);
 					if(state.isOf(this)) {
-						if (state.get(AXIS).equals(Direction.Axis.X)) {
-							return checkPos.add(0, 0, 1);
-						} else {
-							return checkPos.add(1, 0, 0);
-						}
+						return checkPos.toImmutable();
 					}
 					checkPos.move(Direction.UP);
 				}
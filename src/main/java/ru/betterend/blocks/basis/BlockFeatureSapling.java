@@ -26,9 +26,12 @@ import ru.betterend.client.render.ERenderLayer;
 import ru.betterend.interfaces.IRenderTypeable;
 import ru.betterend.interfaces.Patterned;
 import ru.betterend.registry.EndTags;
+import ru.betterend.util.AsyncGrowth;
 
 public abstract class BlockFeatureSapling extends BlockBaseNotFull implements Fertilizable, IRenderTypeable {
 	private static final VoxelShape SHAPE = Block.createCuboidShape(4, 0, 4, 12, 14, 12);
+	private static final int GROWTH_REACH = 16;
+	private static final int GROWTH_HEIGHT = 48;
 	
 	public BlockFeatureSapling() {
 		super(FabricBlockSettings.of(Material.PLANT)
@@ -81,7 +84,9 @@ public abstract class BlockFeatureSapling extends BlockBaseNotFull implements Fe
 
 	@Override
 	public void grow(ServerWorld world, Random random, BlockPos pos, BlockState state) {
-		getFeature().generate(world, world.getChunkManager().getChunkGenerator(), random, pos, null);
+		AsyncGrowth.grow(world, pos, random, GROWTH_REACH, GROWTH_HEIGHT, (region, growthRandom) -> {
+			getFeature().generate(region, world.getChunkManager().getChunkGenerator(), growthRandom, pos, null);
+		});
 	}
 
 	@Override
@@ -44,6 +44,8 @@ import net.minecraft.world.World;
 import ru.betterend.BetterEnd;
 import ru.betterend.blocks.EndStoneSmelter;
 import ru.betterend.client.gui.EndStoneSmelterScreenHandler;
+import ru.betterend.jfr.JFR;
+import ru.betterend.jfr.SmelterRecipeEvent;
 import ru.betterend.recipe.builders.AlloyingRecipe;
 import ru.betterend.registry.EndBlockEntities;
 
@@ -177,6 +179,25 @@ public class EndStoneSmelterBlockEntity extends LockableContainerBlockEntity imp
 		return smeltTime;
 	}
 	
+	private Recipe<?> findRecipe() {
+		SmelterRecipeEvent event = JFR.AVAILABLE ? new SmelterRecipeEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+		Recipe<?> recipe = this.world.getRecipeManager().getFirstMatch(AlloyingRecipe.TYPE, this, world).orElse(null);
+		if (recipe == null) {
+			recipe = this.world.getRecipeManager().getFirstMatch(RecipeType.BLASTING, this, world).orElse(null);
+		}
+		if (event != null && event.shouldCommit()) {
+			event.recipe = recipe == null ? "none" : recipe.getId().toString();
+			event.x = pos.getX();
+			event.y = pos.getY();
+			event.z = pos.getZ();
+			event.commit();
+		}
+		return recipe;
+	}
+	
 	public void dropExperience(PlayerEntity player) {
 		List<Recipe<?>> list = Lists.newArrayList();
 		ObjectIterator<Entry<Identifier>> usedRecipes = this.recipesUsed.object2IntEntrySet().iterator();
@@ -250,10 +271,7 @@ public class EndStoneSmelterBlockEntity extends LockableContainerBlockEntity imp
 					this.smeltTime = MathHelper.clamp(smeltTime - 2, 0, smeltTimeTotal);
 				}
 			} else {
-				Recipe<?> recipe = this.world.getRecipeManager().getFirstMatch(AlloyingRecipe.TYPE, this, world).orElse(null);
-				if (recipe == null) {
-					recipe = this.world.getRecipeManager().getFirstMatch(RecipeType.BLASTING, this, world).orElse(null);
-				}
+				Recipe<?> recipe = this.findRecipe();
 				boolean accepted = this.canAcceptRecipeOutput(recipe);
 				if (!burning && accepted) {
 					this.burnTime = this.getFuelTime(fuel);
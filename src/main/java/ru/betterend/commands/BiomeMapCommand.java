@@ -0,0 +1,117 @@
+package ru.betterend.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.LiteralText;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.source.BiomeSource;
+import ru.betterend.BetterEnd;
+import ru.betterend.config.ConfigWriter;
+import ru.betterend.world.generator.BetterEndBiomeSource;
+import ru.betterend.world.generator.BiomeMapRenderer;
+import ru.betterend.world.generator.BiomeMapRenderer.Result;
+
+/**
+ * /betterend biomemap &lt;radius&gt; [step] [seed]
+ * <p>Map is rendered on worker thread, without seed biome source of the End is used.
+ * If biome_map_golden.png or height_map_golden.png exist in config folder, rendered images are compared with them.</p>
+ */
+public class BiomeMapCommand {
+	private static final int MAX_SIZE = 2048;
+	private static final AtomicBoolean RENDERING = new AtomicBoolean();
+	public static final File BIOME_FILE = new File(ConfigWriter.MOD_CONFIG_DIR, "biome_map.png");
+	public static final File HEIGHT_FILE = new File(ConfigWriter.MOD_CONFIG_DIR, "height_map.png");
+	public static final File BIOME_GOLDEN_FILE = new File(ConfigWriter.MOD_CONFIG_DIR, "biome_map_golden.png");
+	public static final File HEIGHT_GOLDEN_FILE = new File(ConfigWriter.MOD_CONFIG_DIR, "height_map_golden.png");
+	
+	public static LiteralArgumentBuilder<ServerCommandSource> build() {
+		return CommandManager.literal("biomemap")
+			.then(CommandManager.argument("radius", IntegerArgumentType.integer(16, 65536)).executes((context) -> {
+				return render(context, IntegerArgumentType.getInteger(context, "radius"), 4, null);
+			})
+			.then(CommandManager.argument("step", IntegerArgumentType.integer(1, 256)).executes((context) -> {
+				return render(context, IntegerArgumentType.getInteger(context, "radius"), IntegerArgumentType.getInteger(context, "step"), null);
+			})
+			.then(CommandManager.argument("seed", LongArgumentType.longArg()).executes((context) -> {
+				return render(context, IntegerArgumentType.getInteger(context, "radius"), IntegerArgumentType.getInteger(context, "step"), LongArgumentType.getLong(context, "seed"));
+			}))));
+	}
+	
+	private static int render(CommandContext<ServerCommandSource> context, int radius, int step, Long seed) {
+		ServerCommandSource source = context.getSource();
+		if (radius * 2 / step > MAX_SIZE) {
+			source.sendError(new LiteralText("Map is too large, maximum size is " + MAX_SIZE + " pixels, increase step"));
+			return 0;
+		}
+		MinecraftServer server = source.getMinecraftServer();
+		ServerWorld world = server.getWorld(World.END);
+		BiomeSource biomeSource = world == null ? null : world.getChunkManager().getChunkGenerator().getBiomeSource();
+		if (!(biomeSource instanceof BetterEndBiomeSource)) {
+			source.sendError(new LiteralText("The End doesn't use BetterEnd biome source"));
+			return 0;
+		}
+		if (!RENDERING.compareAndSet(false, true)) {
+			source.sendError(new LiteralText("Biome map is already rendering"));
+			return 0;
+		}
+		
+		BetterEndBiomeSource worldSource = (BetterEndBiomeSource) biomeSource;
+		BetterEndBiomeSource endSource = seed == null ? worldSource : worldSource.withPreviewSeed(seed);
+		Registry<Biome> biomeRegistry = server.getRegistryManager().get(Registry.BIOME_KEY);
+		Vec3d pos = source.getPosition();
+		int centerX = (int) pos.x;
+		int centerZ = (int) pos.z;
+		source.sendFeedback(new LiteralText("Rendering biome map..."), false);
+		
+		CompletableFuture.supplyAsync(() -> {
+			try {
+				Result result = BiomeMapRenderer.render(endSource, biomeRegistry, centerX, centerZ, radius, step, BIOME_FILE, HEIGHT_FILE);
+				int biomeDiff = BiomeMapRenderer.compare(BIOME_FILE, BIOME_GOLDEN_FILE);
+				int heightDiff = BiomeMapRenderer.compare(HEIGHT_FILE, HEIGHT_GOLDEN_FILE);
+				String message = String.format(Locale.ROOT, "Biome map saved to %s and %s: %d samples in %.1f ms, %.0f samples/s",
+					BIOME_FILE.getPath(), HEIGHT_FILE.getPath(), result.getSamples(), result.getNanos() / 1000000.0, result.getSamplesPerSecond()
+				);
+				if (biomeDiff >= 0 || heightDiff >= 0) {
+					message += String.format(Locale.ROOT, "; golden images: %s biome, %s height pixels differ",
+						biomeDiff < 0 ? "no" : Integer.toString(biomeDiff),
+						heightDiff < 0 ? "no" : Integer.toString(heightDiff)
+					);
+				}
+				return message;
+			}
+			catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, Util.getServerWorkerExecutor()).whenComplete((message, error) -> {
+			server.execute(() -> {
+				RENDERING.set(false);
+				if (error != null) {
+					BetterEnd.LOGGER.catching(error instanceof CompletionException ? error.getCause() : error);
+					source.sendError(new LiteralText("Unable to render biome map"));
+				}
+				else {
+					source.sendFeedback(new LiteralText(message), false);
+				}
+			});
+		});
+		return 1;
+	}
+}
@@ -0,0 +1,25 @@
+package ru.betterend.commands;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.LiteralText;
+import ru.betterend.BetterEnd;
+
+/**
+ * /betterend config reload
+ */
+public class ConfigCommand {
+	public static LiteralArgumentBuilder<ServerCommandSource> build() {
+		return CommandManager.literal("config")
+			.then(CommandManager.literal("reload").executes((context) -> {
+				if (BetterEnd.CONFIG.reload()) {
+					context.getSource().sendFeedback(new LiteralText("BetterEnd config reloaded"), true);
+					return 1;
+				}
+				context.getSource().sendError(new LiteralText("Unable to reload BetterEnd config, see log for details"));
+				return 0;
+			}));
+	}
+}
@@ -0,0 +1,68 @@
+package ru.betterend.commands;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.LiteralText;
+import net.minecraft.world.World;
+import ru.betterend.world.generator.Pregenerator;
+
+/**
+ * /betterend pregen (&lt;radius&gt; | stop | status | reset)
+ */
+public class PregenCommand {
+	public static LiteralArgumentBuilder<ServerCommandSource> build() {
+		return CommandManager.literal("pregen")
+			.then(CommandManager.argument("radius", IntegerArgumentType.integer(0, 10000)).executes((context) -> {
+				ServerWorld world = getWorld(context);
+				if (world == null) {
+					return 0;
+				}
+				int radius = IntegerArgumentType.getInteger(context, "radius");
+				if (!Pregenerator.start(world, radius)) {
+					context.getSource().sendError(new LiteralText("Pregeneration is already running, use /betterend pregen stop"));
+					return 0;
+				}
+				context.getSource().sendFeedback(new LiteralText("End pregeneration started in radius " + radius + " chunks"), true);
+				return 1;
+			}))
+			.then(CommandManager.literal("stop").executes((context) -> {
+				if (!Pregenerator.stop()) {
+					context.getSource().sendError(new LiteralText("Pregeneration is not running"));
+					return 0;
+				}
+				context.getSource().sendFeedback(new LiteralText("End pregeneration stopped, it will continue from checkpoint on next start"), true);
+				return 1;
+			}))
+			.then(CommandManager.literal("status").executes((context) -> {
+				String report = Pregenerator.getReport();
+				context.getSource().sendFeedback(new LiteralText(report == null ? "Pregeneration is not running" : report), false);
+				return 1;
+			}))
+			.then(CommandManager.literal("reset").executes((context) -> {
+				ServerWorld world = getWorld(context);
+				if (world == null) {
+					return 0;
+				}
+				if (Pregenerator.isRunning()) {
+					context.getSource().sendError(new LiteralText("Pregeneration is running, use /betterend pregen stop first"));
+					return 0;
+				}
+				Pregenerator.reset(world);
+				context.getSource().sendFeedback(new LiteralText("End pregeneration checkpoint cleared"), true);
+				return 1;
+			}));
+	}
+	
+	private static ServerWorld getWorld(CommandContext<ServerCommandSource> context) {
+		ServerWorld world = context.getSource().getMinecraftServer().getWorld(World.END);
+		if (world == null) {
+			context.getSource().sendError(new LiteralText("The End is not available"));
+		}
+		return world;
+	}
+}
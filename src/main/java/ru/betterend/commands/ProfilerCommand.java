@@ -0,0 +1,73 @@
+package ru.betterend.commands;
+
+import java.util.List;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.LiteralText;
+import ru.betterend.world.generator.GeneratorProfiler;
+import ru.betterend.world.generator.GeneratorProfiler.Stats;
+
+/**
+ * /betterend profiler (start | stop | reset | dump | show [count])
+ */
+public class ProfilerCommand {
+	public static LiteralArgumentBuilder<ServerCommandSource> build() {
+		return CommandManager.literal("profiler")
+			.then(CommandManager.literal("start").executes((context) -> {
+				GeneratorProfiler.setEnabled(true);
+				return sendMessage(context, "Worldgen profiler started");
+			}))
+			.then(CommandManager.literal("stop").executes((context) -> {
+				GeneratorProfiler.setEnabled(false);
+				return sendMessage(context, "Worldgen profiler stopped");
+			}))
+			.then(CommandManager.literal("reset").executes((context) -> {
+				GeneratorProfiler.reset();
+				return sendMessage(context, "Worldgen profiler data cleared");
+			}))
+			.then(CommandManager.literal("dump").executes((context) -> {
+				if (GeneratorProfiler.dump(GeneratorProfiler.DUMP_FILE)) {
+					return sendMessage(context, "Worldgen profile saved to " + GeneratorProfiler.DUMP_FILE.getPath());
+				}
+				context.getSource().sendError(new LiteralText("Unable to save worldgen profile"));
+				return 0;
+			}))
+			.then(CommandManager.literal("show")
+				.executes((context) -> show(context, 10))
+				.then(CommandManager.argument("count", IntegerArgumentType.integer(1)).executes((context) -> {
+					return show(context, IntegerArgumentType.getInteger(context, "count"));
+				}))
+			);
+	}
+	
+	private static int show(CommandContext<ServerCommandSource> context, int count) {
+		List<Stats> stats = GeneratorProfiler.getStats();
+		if (stats.isEmpty()) {
+			return sendMessage(context, "No worldgen profiler data" + (GeneratorProfiler.isEnabled() ? "" : ", use /betterend profiler start"));
+		}
+		sendMessage(context, "type, name: count, total ms, avg us, p99 us, blocks, chunk accesses");
+		count = Math.min(count, stats.size());
+		for (int i = 0; i < count; i++) {
+			Stats entry = stats.get(i);
+			long calls = entry.getCount();
+			sendMessage(context, String.format("%s, %s: %d, %.1f, %.1f, %.1f, %d, %d",
+				entry.getType(), entry.getName(), calls,
+				entry.getTotalNanos() / 1000000.0,
+				calls > 0 ? entry.getTotalNanos() / 1000.0 / calls : 0.0,
+				entry.getPercentile(0.99) / 1000.0,
+				entry.getBlocks(), entry.getChunkAccesses()
+			));
+		}
+		return count;
+	}
+	
+	private static int sendMessage(CommandContext<ServerCommandSource> context, String message) {
+		context.getSource().sendFeedback(new LiteralText(message), false);
+		return 1;
+	}
+}
@@ -21,6 +21,24 @@ public abstract class Config {
 	public abstract void saveChanges();
 	protected abstract void registerEntries();
 	
+	/**
+	 * Get entry handle that can be stored in a field, its value is always actual (including config reload).
+	 */
+	public BooleanEntry getBooleanEntry(String category, String key, boolean defaultValue) {
+		this.getBoolean(category, key, defaultValue);
+		return this.configKeeper.getEntry(category, key);
+	}
+	
+	public IntegerEntry getIntEntry(String category, String key, int defaultValue) {
+		this.getInt(category, key, defaultValue);
+		return this.configKeeper.getEntry(category, key);
+	}
+	
+	public FloatEntry getFloatEntry(String category, String key, float defaultValue) {
+		this.getFloat(category, key, defaultValue);
+		return this.configKeeper.getEntry(category, key);
+	}
+	
 	@Nullable
 	public <E extends Entry<?>> E getEntry(String category, String key) {
 		return this.configKeeper.getEntry(category, key);
@@ -1,5 +1,6 @@
 package ru.betterend.config;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import org.jetbrains.annotations.Nullable;
@@ -11,9 +12,14 @@ import com.google.gson.JsonObject;
 import net.minecraft.util.JsonHelper;
 import ru.betterend.BetterEnd;
 
+/**
+ * Values of all registered entries are stored in one array that is replaced as a whole on every change,
+ * so readers on any thread see either all values of a reload or none of them.
+ */
 public final class ConfigKeeper {
 	
 	private Map<String, Map<String, Entry<?>>> configEntries = Maps.newHashMap();
+	private volatile Object[] values = new Object[0];
 	
 	public JsonElement toJson(JsonObject jsonObject) {
 		for (String category : configEntries.keySet()) {
@@ -43,6 +49,58 @@ public final class ConfigKeeper {
 		}
 	}
 	
+	/**
+	 * Apply values from json to registered entries. All values are parsed into a copy of current values first
+	 * and the copy is published at once, if any value can't be parsed nothing is changed.
+	 * @return true if values were applied
+	 */
+	public synchronized boolean reload(JsonObject jsonObject) {
+		Object[] staged = values.clone();
+		try {
+			for (String category : configEntries.keySet()) {
+				if (!jsonObject.has(category)) continue;
+				JsonObject jsonCategory = jsonObject.getAsJsonObject(category);
+				for (Map.Entry<String, Entry<?>> entry : configEntries.get(category).entrySet()) {
+					String key = entry.getKey() + " [default: " + entry.getValue().getDefault() + "]";
+					if (!jsonCategory.has(key)) continue;
+					stage(staged, entry.getValue(), JsonHelper.getString(jsonCategory, key));
+				}
+			}
+		}
+		catch (RuntimeException ex) {
+			BetterEnd.LOGGER.catching(ex);
+			return false;
+		}
+		values = staged;
+		return true;
+	}
+	
+	private <T> void stage(Object[] staged, Entry<T> entry, String value) {
+		if (entry.keeper == this) {
+			staged[entry.index] = entry.validate(entry.parse(value));
+		}
+	}
+	
+	/**
+	 * Attach entry to this keeper, entry value is moved into values array.
+	 */
+	private synchronized void bind(Entry<?> entry) {
+		if (entry.keeper == this) {
+			return;
+		}
+		Object[] copy = Arrays.copyOf(values, values.length + 1);
+		copy[values.length] = entry.getValue();
+		values = copy;
+		entry.index = values.length - 1;
+		entry.keeper = this;
+	}
+	
+	private synchronized void setValue(int index, Object value) {
+		Object[] copy = values.clone();
+		copy[index] = value;
+		values = copy;
+	}
+	
 	@Nullable
 	@SuppressWarnings("unchecked")
 	public <E extends Entry<?>> E getEntry(String category, String key) {
@@ -65,6 +123,7 @@ public final class ConfigKeeper {
 	public void set(String category, String key, Entry<?> entry) {
 		Map<String, Entry<?>> entryCategory = this.configEntries.get(category);
 		if (entryCategory != null) {
+			bind(entry);
 			entryCategory.put(key, entry);
 		}
 	}
@@ -75,6 +134,7 @@ public final class ConfigKeeper {
 			entryCategory = Maps.newHashMap();
 			this.configEntries.put(category, entryCategory);
 		}
+		bind(entry);
 		entryCategory.put(key, entry);
 		return entry;
 	}
@@ -91,8 +151,8 @@ public final class ConfigKeeper {
 		}
 
 		@Override
-		public void fromString(String value) {
-			this.setValue(value.equals("true") ? true : false);
+		protected Boolean parse(String value) {
+			return value.equals("true");
 		}
 
 	}
@@ -109,8 +169,8 @@ public final class ConfigKeeper {
 		}
 
 		@Override
-		public void fromString(String value) {
-			this.setValue(Float.valueOf(value));
+		protected Float parse(String value) {
+			return Float.valueOf(value);
 		}
 
 	}
@@ -122,8 +182,8 @@ public final class ConfigKeeper {
 		}
 
 		@Override
-		public void fromString(String value) {
-			this.setValue(Float.valueOf(value));
+		protected Float parse(String value) {
+			return Float.valueOf(value);
 		}
 
 		@Override
@@ -150,8 +210,8 @@ public final class ConfigKeeper {
 		}
 
 		@Override
-		public void fromString(String value) {
-			this.setValue(Integer.valueOf(value));
+		protected Integer parse(String value) {
+			return Integer.valueOf(value);
 		}
 
 	}
@@ -168,8 +228,8 @@ public final class ConfigKeeper {
 		}
 
 		@Override
-		public void fromString(String value) {
-			this.setValue(Integer.valueOf(value));
+		protected Integer parse(String value) {
+			return Integer.valueOf(value);
 		}
 		
 	}
@@ -186,8 +246,8 @@ public final class ConfigKeeper {
 		}
 
 		@Override
-		public void fromString(String value) {
-			this.setValue(value);
+		protected String parse(String value) {
+			return value;
 		}
 
 	}
@@ -223,7 +283,13 @@ public final class ConfigKeeper {
 		@Override
 		public void fromString(String value) {
 			this.setValue(value);
-		}		
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		protected T parse(String value) {
+			return (T) Enum.valueOf(this.defaultValue.getClass(), value);
+		}
 	}
 	
 	public static abstract class RangeEntry<T extends Comparable<T>> extends Entry<T> {
@@ -237,8 +303,8 @@ public final class ConfigKeeper {
 		}
 
 		@Override
-		public void setValue(T value) {
-			this.value = (value.compareTo(min) < 0 ? min : value.compareTo(max) > 0 ? max : value);
+		protected T validate(T value) {
+			return value.compareTo(min) < 0 ? min : value.compareTo(max) > 0 ? max : value;
 		}
 		
 		public T minValue() {
@@ -253,22 +319,46 @@ public final class ConfigKeeper {
 	public static abstract class Entry<T> {
 		
 		protected final T defaultValue;
-		protected T value;
+		private volatile T value;
+		private volatile ConfigKeeper keeper;
+		private int index;
 		
-		public abstract void fromString(String value);
 		public abstract String asString();
+		protected abstract T parse(String value);
 		
 		public Entry (T defaultValue) {
 			this.defaultValue = defaultValue;
 			this.value = defaultValue;
 		}
+		
+		public void fromString(String value) {
+			this.setValue(parse(value));
+		}
+		
+		/**
+		 * Convert parsed value into allowed one, called for every new value.
+		 */
+		protected T validate(T value) {
+			return value;
+		}
 
+		/**
+		 * Value from current snapshot of the keeper, or own value if entry is not registered.
+		 */
+		@SuppressWarnings("unchecked")
 		public T getValue() {
-			return this.value;
+			ConfigKeeper keeper = this.keeper;
+			return keeper == null ? this.value : (T) keeper.values[index];
 		}
 		
 		public void setValue(T value) {
-			this.value = value;
+			value = validate(value);
+			if (keeper == null) {
+				this.value = value;
+			}
+			else {
+				keeper.setValue(index, value);
+			}
 		}
 		
 		public T getDefault() {
@@ -276,7 +366,7 @@ public final class ConfigKeeper {
 		}
 		
 		public void setDefault() {
-			this.value = defaultValue;
+			this.setValue(defaultValue);
 		}
 	}
 }
@@ -3,6 +3,8 @@ package ru.betterend.config;
 import java.io.File;
 import java.nio.file.Path;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
@@ -27,6 +29,20 @@ public class ConfigWriter {
 		return configObject;
 	}
 	
+	public void setConfig(JsonObject config) {
+		this.configObject = config;
+	}
+	
+	/**
+	 * Read config file again without replacing loaded config.
+	 * @return {@link JsonObject} or null if file can't be read
+	 */
+	@Nullable
+	public JsonObject read() {
+		JsonElement config = JsonFactory.loadJson(configFile);
+		return config != null && config.isJsonObject() ? config.getAsJsonObject() : null;
+	}
+	
 	public void saveConfig() {
 		if (configObject == null) {
 			return;
@@ -42,6 +42,20 @@ public class MainConfig extends Config {
 //		this.configKeeper.registerEntry("add_hammers", new BooleanEntry(true));
 	}
 	
+	/**
+	 * Read settings file again and apply new values to all entries.
+	 * @return false if file can't be read or contains invalid values, entries are not changed in that case
+	 */
+	public synchronized boolean reload() {
+		JsonObject json = this.writer.read();
+		if (json == null || !this.configKeeper.reload(json)) {
+			return false;
+		}
+		this.settings = json;
+		this.writer.setConfig(json);
+		return true;
+	}
+	
 	@Override
 	public void saveChanges() {
 		this.configKeeper.toJson(settings);
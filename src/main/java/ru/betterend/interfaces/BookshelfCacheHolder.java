@@ -0,0 +1,7 @@
+package ru.betterend.interfaces;
+
+import ru.betterend.util.BookshelfHelper;
+
+public interface BookshelfCacheHolder {
+	public abstract BookshelfHelper.Cache beGetBookshelfCache();
+}
@@ -1,18 +1,14 @@
 package ru.betterend.interfaces;
 
 import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
-import net.minecraft.client.MinecraftClient;
-import net.minecraft.resource.ResourceManager;
+import com.google.common.collect.ImmutableMap;
+
 import net.minecraft.util.Identifier;
 import ru.betterend.BetterEnd;
+import ru.betterend.util.PatternTemplate;
 
 public interface Patterned {
 	//Blockstates
@@ -100,48 +96,22 @@ public interface Patterned {
 	
 	public static String createJson(Reader data, Identifier parent, String name) {
 		try (BufferedReader buffer = new BufferedReader(data)) {
-			return buffer.lines().collect(Collectors.joining())
-					.replace("%parent%", parent.getPath())
-					.replace("%block%", name);
+			return PatternTemplate.compile(buffer).apply(ImmutableMap.of("%parent%", parent.getPath(), "%block%", name));
 		} catch (Exception ex) {
 			return null;
 		}
 	}
 	
 	public static String createJson(Identifier patternId, Identifier parent, String block) {
-		ResourceManager resourceManager = MinecraftClient.getInstance().getResourceManager();
-		try (InputStream input = resourceManager.getResource(patternId).getInputStream()) {
-			return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))
-					.lines().collect(Collectors.joining())
-						.replace("%parent%", parent.getPath())
-						.replace("%block%", block);
-		} catch (Exception ex) {
-			return null;
-		}
+		return createJson(patternId, ImmutableMap.of("%parent%", parent.getPath(), "%block%", block));
 	}
 	
 	public static String createJson(Identifier patternId, String texture) {
-		ResourceManager resourceManager = MinecraftClient.getInstance().getResourceManager();
-		try (InputStream input = resourceManager.getResource(patternId).getInputStream()) {
-			return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))
-					.lines().collect(Collectors.joining())
-					.replace("%texture%", texture);
-		} catch (Exception ex) {
-			return null;
-		}
+		return createJson(patternId, ImmutableMap.of("%texture%", texture));
 	}
 	
 	public static String createJson(Identifier patternId, Map<String, String> textures) {
-		ResourceManager resourceManager = MinecraftClient.getInstance().getResourceManager();
-		try (InputStream input = resourceManager.getResource(patternId).getInputStream()) {
-			String json = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))
-					.lines().collect(Collectors.joining());
-			for (Entry<String, String> texture : textures.entrySet()) {
-				json = json.replace(texture.getKey(), texture.getValue());
-			}
-			return json;
-		} catch (Exception ex) {
-			return null;
-		}
+		PatternTemplate template = PatternTemplate.get(patternId);
+		return template == null ? null : template.apply(textures);
 	}
 }
@@ -0,0 +1,7 @@
+package ru.betterend.interfaces;
+
+import ru.betterend.world.generator.SurfaceIndex;
+
+public interface SurfaceIndexHolder {
+	public abstract SurfaceIndex beGetSurfaceIndex();
+}
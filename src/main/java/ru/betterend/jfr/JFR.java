@@ -0,0 +1,19 @@
+package ru.betterend.jfr;
+
+/**
+ * Java Flight Recorder support. Events are only created when JFR API is present in the runtime,
+ * so event classes should never be touched without checking {@link #AVAILABLE} first.
+ */
+public class JFR {
+	public static final boolean AVAILABLE = isAvailable();
+	
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return true;
+		}
+		catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
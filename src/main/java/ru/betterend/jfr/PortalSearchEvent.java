@@ -0,0 +1,33 @@
+package ru.betterend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("betterend.PortalSearch")
+@Label("Eternal Portal Search")
+@Category({ "BetterEnd", "Rituals" })
+@Description("Search of exit position for eternal ritual portal")
+public class PortalSearchEvent extends jdk.jfr.Event {
+	@Label("Target Dimension")
+	public String dimension;
+	
+	@Label("Origin X")
+	public int originX;
+	
+	@Label("Origin Y")
+	public int originY;
+	
+	@Label("Origin Z")
+	public int originZ;
+	
+	@Label("Exit X")
+	public int exitX;
+	
+	@Label("Exit Y")
+	public int exitY;
+	
+	@Label("Exit Z")
+	public int exitZ;
+}
@@ -0,0 +1,35 @@
+package ru.betterend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("betterend.SDFFill")
+@Label("SDF Fill")
+@Category({ "BetterEnd", "World Generation" })
+@Description("Filling of SDF shape in the world")
+@StackTrace(false)
+public class SDFFillEvent extends jdk.jfr.Event {
+	@Label("Shape")
+	public String shape;
+	
+	@Label("Fill Method")
+	public String method;
+	
+	@Label("X")
+	public int x;
+	
+	@Label("Y")
+	public int y;
+	
+	@Label("Z")
+	public int z;
+	
+	@Label("Voxels Visited")
+	public int visited;
+	
+	@Label("Blocks Placed")
+	public int placed;
+}
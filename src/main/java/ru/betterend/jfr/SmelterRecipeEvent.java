@@ -0,0 +1,26 @@
+package ru.betterend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("betterend.SmelterRecipeLookup")
+@Label("Smelter Recipe Lookup")
+@Category({ "BetterEnd", "Block Entities" })
+@Description("Recipe lookup in End Stone Smelter tick")
+@StackTrace(false)
+public class SmelterRecipeEvent extends jdk.jfr.Event {
+	@Label("Recipe")
+	public String recipe;
+	
+	@Label("X")
+	public int x;
+	
+	@Label("Y")
+	public int y;
+	
+	@Label("Z")
+	public int z;
+}
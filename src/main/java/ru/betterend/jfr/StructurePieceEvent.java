@@ -0,0 +1,23 @@
+package ru.betterend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("betterend.StructurePiece")
+@Label("Structure Piece")
+@Category({ "BetterEnd", "World Generation" })
+@Description("Generation of BetterEnd structure piece in a chunk")
+@StackTrace(false)
+public class StructurePieceEvent extends jdk.jfr.Event {
+	@Label("Piece Type")
+	public String pieceType;
+	
+	@Label("Chunk X")
+	public int chunkX;
+	
+	@Label("Chunk Z")
+	public int chunkZ;
+}
@@ -1,5 +1,7 @@
 package ru.betterend.mixin.client;
 
+import java.lang.ref.WeakReference;
+
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
@@ -18,16 +20,19 @@ import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.fluid.FluidState;
 import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.Biome.Category;
 import ru.betterend.registry.EndBiomes;
 import ru.betterend.util.BackgroundInfo;
-import ru.betterend.world.biome.EndBiome;
+import ru.betterend.util.FogDensityGrid;
 
 @Mixin(BackgroundRenderer.class)
 public class BackgroundRendererMixin {
+	private static final FogDensityGrid FOG_GRID = new FogDensityGrid(3);
+	private static WeakReference<World> fogWorld = new WeakReference<World>(null);
 	private static float lastFogDensity;
 	private static float fogDensity;
 	private static float lerp;
@@ -70,18 +75,31 @@ public class BackgroundRendererMixin {
 	@Inject(method = "applyFog", at = @At("HEAD"), cancellable = true)
 	private static void fogDensity(Camera camera, BackgroundRenderer.FogType fogType, float viewDistance, boolean thickFog, CallbackInfo info) {
 		Entity entity = camera.getFocusedEntity();
-		Biome biome = entity.world.getBiome(entity.getBlockPos());
 		FluidState fluidState = camera.getSubmergedFluidState();
-		if (biome.getCategory() == Category.THEEND && fluidState.isEmpty()) {
-			EndBiome endBiome = EndBiomes.getRenderBiome(biome);
-			
+		if (!fluidState.isEmpty()) {
+			return;
+		}
+		
+		World world = entity.world;
+		// Weak reference, so unloaded client world is not kept after disconnect
+		if (world != fogWorld.get()) {
+			fogWorld = new WeakReference<World>(world);
+			FOG_GRID.invalidate();
+		}
+		int y = entity.getBlockPos().getY();
+		float density = FOG_GRID.getDensity(entity.getX(), entity.getZ(), (x, z) -> {
+			Biome biome = world.getBiome(new BlockPos(x, y, z));
+			return biome.getCategory() == Category.THEEND ? EndBiomes.getRenderBiome(biome).getFogDensity() : Float.NaN;
+		});
+		
+		if (!Float.isNaN(density)) {
 			if (fogDensity == 0) {
-				fogDensity = endBiome.getFogDensity();
+				fogDensity = density;
 				lastFogDensity = fogDensity;
 			}
 			if (lerp == 1) {
 				lastFogDensity = fogDensity;
-				fogDensity = endBiome.getFogDensity();
+				fogDensity = density;
 				lerp = 0;
 			}
 			
@@ -13,7 +13,7 @@ import net.minecraft.block.EnchantingTableBlock;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import ru.betterend.registry.EndTags;
+import ru.betterend.util.BookshelfHelper;
 
 @Mixin(EnchantingTableBlock.class)
 public abstract class EnchantingTableBlockMixin extends Block {
@@ -23,6 +23,7 @@ public abstract class EnchantingTableBlockMixin extends Block {
 
 	@Inject(method = "randomDisplayTick", at = @At(value = "TAIL"))
 	private void beOnRandomDisplayTick(BlockState state, World world, BlockPos pos, Random random, CallbackInfo info) {
+		long mask = BookshelfHelper.getParticleMask(world, pos);
 		for (int px = -2; px <= 2; ++px) {
 			for (int pz = -2; pz <= 2; ++pz) {
 				if (px > -2 && px < 2 && pz == -1) {
@@ -30,11 +31,7 @@ public abstract class EnchantingTableBlockMixin extends Block {
 				}
 				if (random.nextInt(16) == 0) {
 					for (int py = 0; py <= 1; ++py) {
-						BlockPos blockPos = pos.add(px, py, pz);
-						if (world.getBlockState(blockPos).isIn(EndTags.BOOKSHELVES)) {
-							if (!world.isAir(pos.add(px / 2, 0, pz / 2))) {
-								break;
-							}
+						if ((mask >> BookshelfHelper.getParticleIndex(px, py, pz) & 1) != 0) {
 							world.addParticle(ParticleTypes.ENCHANT, pos.getX() + 0.5, pos.getY() + 2.0, pos.getZ() + 0.5, px + random.nextFloat() - 0.5, py - random.nextFloat() - 1.0, pz + random.nextFloat() - 0.5);
 						}
 					}
@@ -3,6 +3,7 @@ package ru.betterend.mixin.client;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -13,17 +14,22 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import com.google.common.collect.Sets;
+
 import net.minecraft.block.Block;
+import net.minecraft.client.color.block.BlockColors;
 import net.minecraft.client.render.model.ModelLoader;
 import net.minecraft.client.render.model.json.JsonUnbakedModel;
 import net.minecraft.client.render.model.json.ModelVariantMap.DeserializationContext;
 import net.minecraft.resource.Resource;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
 import net.minecraft.util.registry.Registry;
 import ru.betterend.BetterEnd;
 import ru.betterend.interfaces.IdentifiedContext;
 import ru.betterend.interfaces.Patterned;
+import ru.betterend.util.PatternTemplate;
 
 @Mixin(ModelLoader.class)
 public class ModelLoaderMixin {
@@ -36,41 +42,70 @@ public class ModelLoaderMixin {
 	@Shadow
 	private ResourceManager resourceManager;
 	
+	private Set<Identifier> beModelIds;
+	
+	@Inject(method = "<init>", at = @At("RETURN"))
+	private void beOnInit(ResourceManager resourceManager, BlockColors blockColors, Profiler profiler, int mipmap, CallbackInfo info) {
+		// Models are loaded, patterns can be changed by resource packs before next loading
+		PatternTemplate.clearCache();
+		beModelIds = null;
+	}
+	
 	@Inject(method = "loadModelFromJson", at = @At("HEAD"), cancellable = true)
 	private void loadModelPattern(Identifier id, CallbackInfoReturnable<JsonUnbakedModel> info) {
 		if (id.getNamespace().equals(BetterEnd.MOD_ID)) {
 			Identifier modelId = new Identifier(id.getNamespace(), "models/" + id.getPath() + ".json");
 			JsonUnbakedModel model;
-			try (Resource resource = this.resourceManager.getResource(modelId)) {
-				Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
-				model = JsonUnbakedModel.deserialize(reader);
-				model.id = id.toString();
-				info.setReturnValue(model);
-				info.cancel();
-			} catch (Exception ex) {
-				String data[] = id.getPath().split("/");
-				if (data.length > 1) {
-					Identifier blockId = new Identifier(id.getNamespace(), data[1]);
-					Block block = Registry.BLOCK.get(blockId);
-					if (block instanceof Patterned) {
-						String pattern;
-						if (id.getPath().contains("item")) {
-							pattern = ((Patterned) block).getModelPattern(id.getPath());
+			if (beHasModel(modelId)) {
+				try (Resource resource = this.resourceManager.getResource(modelId)) {
+					Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
+					model = JsonUnbakedModel.deserialize(reader);
+					model.id = id.toString();
+					info.setReturnValue(model);
+					info.cancel();
+					return;
+				} catch (Exception ex) {
+					// Broken model file, use pattern instead
+				}
+			}
+			String data[] = id.getPath().split("/");
+			if (data.length > 1) {
+				Identifier blockId = new Identifier(id.getNamespace(), data[1]);
+				Block block = Registry.BLOCK.get(blockId);
+				if (block instanceof Patterned) {
+					String pattern;
+					if (id.getPath().contains("item")) {
+						pattern = ((Patterned) block).getModelPattern(id.getPath());
+					} else {
+						if (data.length > 2) {
+							pattern = ((Patterned) block).getModelPattern(data[2]);
 						} else {
-							if (data.length > 2) {
-								pattern = ((Patterned) block).getModelPattern(data[2]);
-							} else {
-								pattern = ((Patterned) block).getModelPattern(data[1]);
-							}
+							pattern = ((Patterned) block).getModelPattern(data[1]);
 						}
-						model = JsonUnbakedModel.deserialize(pattern);
-						model.id = id.toString();
-						info.setReturnValue(model);
-						info.cancel();
 					}
+					model = JsonUnbakedModel.deserialize(pattern);
+					model.id = id.toString();
+					info.setReturnValue(model);
+					info.cancel();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Model files of the mod are listed once per loading, so missing models (generated from patterns)
+	 * are found without exceptions.
+	 */
+	private boolean beHasModel(Identifier modelId) {
+		if (beModelIds == null) {
+			beModelIds = Sets.newHashSet();
+			for (Identifier id: resourceManager.findResources("models", (path) -> path.endsWith(".json"))) {
+				if (id.getNamespace().equals(BetterEnd.MOD_ID)) {
+					beModelIds.add(id);
 				}
 			}
 		}
+		return beModelIds.contains(modelId);
 	}
 	
 	@Inject(method = "loadModel", at = @At(
@@ -0,0 +1,53 @@
+package ru.betterend.mixin.common;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import net.minecraft.structure.StructureManager;
+import net.minecraft.util.registry.DynamicRegistryManager;
+import net.minecraft.world.ChunkRegion;
+import net.minecraft.world.biome.source.BiomeSource;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.StructureAccessor;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+import ru.betterend.world.generator.BetterEndBiomeSource;
+import ru.betterend.world.generator.GeneratorProfiler;
+
+@Mixin(ChunkGenerator.class)
+public class ChunkGeneratorMixin {
+	@Shadow
+	@Final
+	protected BiomeSource biomeSource;
+	
+	@Inject(method = "setStructureStarts", at = @At("HEAD"))
+	private void beOnStructureStartsStart(DynamicRegistryManager registryManager, StructureAccessor accessor, Chunk chunk, StructureManager manager, long seed, CallbackInfo info) {
+		if (GeneratorProfiler.isTimingStages() && biomeSource instanceof BetterEndBiomeSource) {
+			GeneratorProfiler.startStage(GeneratorProfiler.STRUCTURE_STARTS);
+		}
+	}
+	
+	@Inject(method = "setStructureStarts", at = @At("RETURN"))
+	private void beOnStructureStartsEnd(DynamicRegistryManager registryManager, StructureAccessor accessor, Chunk chunk, StructureManager manager, long seed, CallbackInfo info) {
+		if (biomeSource instanceof BetterEndBiomeSource) {
+			GeneratorProfiler.endStage(GeneratorProfiler.STRUCTURE_STARTS);
+		}
+	}
+	
+	@Inject(method = "generateFeatures", at = @At("HEAD"))
+	private void beOnFeaturesStart(ChunkRegion region, StructureAccessor accessor, CallbackInfo info) {
+		if (GeneratorProfiler.isTimingStages() && biomeSource instanceof BetterEndBiomeSource) {
+			GeneratorProfiler.startStage(GeneratorProfiler.FEATURES);
+		}
+	}
+	
+	@Inject(method = "generateFeatures", at = @At("RETURN"))
+	private void beOnFeaturesEnd(ChunkRegion region, StructureAccessor accessor, CallbackInfo info) {
+		if (biomeSource instanceof BetterEndBiomeSource) {
+			GeneratorProfiler.endStage(GeneratorProfiler.FEATURES);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package ru.betterend.mixin.common;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.ChunkRegion;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
+import ru.betterend.interfaces.SurfaceIndexHolder;
+import ru.betterend.world.generator.GeneratorProfiler;
+import ru.betterend.world.generator.SurfaceIndex;
+
+@Mixin(ChunkRegion.class)
+public class ChunkRegionMixin implements SurfaceIndexHolder {
+	@Shadow
+	@Final
+	private int centerChunkX;
+	
+	@Shadow
+	@Final
+	private int centerChunkZ;
+	
+	private SurfaceIndex beSurfaceIndex;
+	
+	@Override
+	public SurfaceIndex beGetSurfaceIndex() {
+		if (beSurfaceIndex == null) {
+			beSurfaceIndex = new SurfaceIndex((ChunkRegion) (Object) this);
+		}
+		return beSurfaceIndex;
+	}
+	
+	@Inject(method = "setBlockState", at = @At("HEAD"))
+	private void beOnSetBlockState(BlockPos pos, BlockState state, int flags, int maxUpdateDepth, CallbackInfoReturnable<Boolean> info) {
+		if (GeneratorProfiler.isEnabled()) {
+			GeneratorProfiler.onBlockSet();
+		}
+	}
+	
+	@Inject(method = "setBlockState", at = @At("RETURN"))
+	private void beUpdateSurfaceIndex(BlockPos pos, BlockState state, int flags, int maxUpdateDepth, CallbackInfoReturnable<Boolean> info) {
+		if (beSurfaceIndex != null && info.getReturnValueZ()) {
+			beSurfaceIndex.onBlockSet(pos, state);
+		}
+	}
+	
+	@Inject(method = "getChunk(IILnet/minecraft/world/chunk/ChunkStatus;Z)Lnet/minecraft/world/chunk/Chunk;", at = @At("HEAD"))
+	private void beOnGetChunk(int chunkX, int chunkZ, ChunkStatus status, boolean create, CallbackInfoReturnable<Chunk> info) {
+		if (GeneratorProfiler.isEnabled() && (chunkX != centerChunkX || chunkZ != centerChunkZ)) {
+			GeneratorProfiler.onChunkAccess();
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package ru.betterend.mixin.common;
+
+import java.util.Random;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.StructureWorldAccess;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+import net.minecraft.world.gen.feature.ConfiguredFeature;
+import net.minecraft.world.gen.feature.Feature;
+import net.minecraft.world.gen.feature.FeatureConfig;
+import ru.betterend.world.features.DefaultFeature;
+import ru.betterend.world.generator.GeneratorProfiler;
+
+@Mixin(ConfiguredFeature.class)
+public class ConfiguredFeatureMixin {
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Redirect(method = "generate", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/gen/feature/Feature;generate(Lnet/minecraft/world/StructureWorldAccess;Lnet/minecraft/world/gen/chunk/ChunkGenerator;Ljava/util/Random;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/world/gen/feature/FeatureConfig;)Z"))
+	private boolean beGenerateFeature(Feature feature, StructureWorldAccess world, ChunkGenerator generator, Random random, BlockPos pos, FeatureConfig config) {
+		if (!(feature instanceof DefaultFeature) || !GeneratorProfiler.isEnabled()) {
+			return feature.generate(world, generator, random, pos, config);
+		}
+		
+		GeneratorProfiler.startFeature(feature);
+		try {
+			return feature.generate(world, generator, random, pos, config);
+		}
+		finally {
+			GeneratorProfiler.endFeature(feature);
+		}
+	}
+}
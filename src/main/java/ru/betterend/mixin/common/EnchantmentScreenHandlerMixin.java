@@ -20,7 +20,7 @@ import net.minecraft.screen.ScreenHandler;
 import net.minecraft.screen.ScreenHandlerContext;
 import net.minecraft.screen.ScreenHandlerType;
 import net.minecraft.util.registry.Registry;
-import ru.betterend.registry.EndTags;
+import ru.betterend.util.BookshelfHelper;
 
 @Mixin(EnchantmentScreenHandler.class)
 public abstract class EnchantmentScreenHandlerMixin extends ScreenHandler {
@@ -62,40 +62,8 @@ public abstract class EnchantmentScreenHandlerMixin extends ScreenHandler {
 			ItemStack itemStack = inventory.getStack(0);
 			if (!itemStack.isEmpty() && itemStack.isEnchantable()) {
 				this.context.run((world, blockPos) -> {
-					int i = 0;
-
+					int i = BookshelfHelper.getPower(world, blockPos);
 					int j;
-					for (j = -1; j <= 1; ++j) {
-						for (int k = -1; k <= 1; ++k) {
-							if ((j != 0 || k != 0) && world.isAir(blockPos.add(k, 0, j)) && world.isAir(blockPos.add(k, 1, j))) {
-								if (world.getBlockState(blockPos.add(k * 2, 0, j * 2)).isIn(EndTags.BOOKSHELVES)) {
-									++i;
-								}
-
-								if (world.getBlockState(blockPos.add(k * 2, 1, j * 2)).isIn(EndTags.BOOKSHELVES)) {
-									++i;
-								}
-
-								if (k != 0 && j != 0) {
-									if (world.getBlockState(blockPos.add(k * 2, 0, j)).isIn(EndTags.BOOKSHELVES)) {
-										++i;
-									}
-
-									if (world.getBlockState(blockPos.add(k * 2, 1, j)).isIn(EndTags.BOOKSHELVES)) {
-										++i;
-									}
-
-									if (world.getBlockState(blockPos.add(k, 0, j * 2)).isIn(EndTags.BOOKSHELVES)) {
-										++i;
-									}
-
-									if (world.getBlockState(blockPos.add(k, 1, j * 2)).isIn(EndTags.BOOKSHELVES)) {
-										++i;
-									}
-								}
-							}
-						}
-					}
 
 					this.random.setSeed((long) this.seed.get());
 
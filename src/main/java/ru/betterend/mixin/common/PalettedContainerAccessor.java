@@ -0,0 +1,27 @@
+package ru.betterend.mixin.common;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import net.minecraft.util.collection.PackedIntegerArray;
+import net.minecraft.world.chunk.Palette;
+import net.minecraft.world.chunk.PalettedContainer;
+
+@Mixin(PalettedContainer.class)
+public interface PalettedContainerAccessor<T> {
+	@Accessor("palette")
+	Palette<T> getPalette();
+	
+	@Accessor("paletteSize")
+	int getPaletteSize();
+	
+	@Accessor("data")
+	PackedIntegerArray getData();
+	
+	@Accessor("data")
+	void setData(PackedIntegerArray data);
+	
+	@Invoker("setPaletteSize")
+	void callSetPaletteSize(int size);
+}
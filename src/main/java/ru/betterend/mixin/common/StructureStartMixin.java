@@ -0,0 +1,64 @@
+package ru.betterend.mixin.common;
+
+import java.util.Random;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import net.minecraft.structure.StructurePiece;
+import net.minecraft.structure.StructureStart;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.StructureWorldAccess;
+import net.minecraft.world.gen.StructureAccessor;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+import ru.betterend.jfr.JFR;
+import ru.betterend.jfr.StructurePieceEvent;
+import ru.betterend.world.generator.GeneratorProfiler;
+import ru.betterend.world.generator.SurfaceIndex;
+import ru.betterend.world.structures.piece.BasePiece;
+
+@Mixin(StructureStart.class)
+public class StructureStartMixin {
+	@Redirect(method = "generateStructure", at = @At(value = "INVOKE", target = "Lnet/minecraft/structure/StructurePiece;generate(Lnet/minecraft/world/StructureWorldAccess;Lnet/minecraft/world/gen/StructureAccessor;Lnet/minecraft/world/gen/chunk/ChunkGenerator;Ljava/util/Random;Lnet/minecraft/util/math/BlockBox;Lnet/minecraft/util/math/ChunkPos;Lnet/minecraft/util/math/BlockPos;)Z"))
+	private boolean beGeneratePiece(StructurePiece piece, StructureWorldAccess world, StructureAccessor accessor, ChunkGenerator generator, Random random, BlockBox box, ChunkPos chunkPos, BlockPos pos) {
+		if (!(piece instanceof BasePiece)) {
+			return piece.generate(world, accessor, generator, random, box, chunkPos, pos);
+		}
+		
+		boolean profile = GeneratorProfiler.isEnabled();
+		StructurePieceEvent event = JFR.AVAILABLE ? new StructurePieceEvent() : null;
+		if (profile) {
+			GeneratorProfiler.startPiece(piece);
+		}
+		if (event != null) {
+			event.begin();
+		}
+		
+		try {
+			return piece.generate(world, accessor, generator, random, box, chunkPos, pos);
+		}
+		finally {
+			if (event != null && event.shouldCommit()) {
+				Identifier id = Registry.STRUCTURE_PIECE.getId(piece.getType());
+				event.pieceType = id == null ? piece.getClass().getSimpleName() : id.toString();
+				event.chunkX = chunkPos.x;
+				event.chunkZ = chunkPos.z;
+				event.commit();
+			}
+			if (profile) {
+				GeneratorProfiler.endPiece(piece);
+			}
+			
+			// BetterEnd pieces write into chunks directly, bypassing index updates
+			SurfaceIndex index = SurfaceIndex.get(world);
+			if (index != null) {
+				index.invalidate();
+			}
+		}
+	}
+}
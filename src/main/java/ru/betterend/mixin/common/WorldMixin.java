@@ -0,0 +1,32 @@
+package ru.betterend.mixin.common;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import ru.betterend.interfaces.BookshelfCacheHolder;
+import ru.betterend.util.BookshelfHelper;
+
+@Mixin(World.class)
+public class WorldMixin implements BookshelfCacheHolder {
+	private BookshelfHelper.Cache beBookshelfCache;
+	
+	@Override
+	public BookshelfHelper.Cache beGetBookshelfCache() {
+		if (beBookshelfCache == null) {
+			beBookshelfCache = new BookshelfHelper.Cache();
+		}
+		return beBookshelfCache;
+	}
+	
+	@Inject(method = "setBlockState(Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/BlockState;II)Z", at = @At("RETURN"))
+	private void beOnSetBlockState(BlockPos pos, BlockState state, int flags, int maxUpdateDepth, CallbackInfoReturnable<Boolean> info) {
+		if (beBookshelfCache != null && !beBookshelfCache.isEmpty() && info.getReturnValueZ()) {
+			BookshelfHelper.onBlockChanged(beBookshelfCache, (World) (Object) this, pos);
+		}
+	}
+}
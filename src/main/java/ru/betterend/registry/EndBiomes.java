@@ -1,6 +1,5 @@
 package ru.betterend.registry;
 
-import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -127,13 +126,8 @@ public class EndBiomes {
 	}
 	
 	private static JsonObject loadJsonConfig(String namespace) {
-		InputStream inputstream = EndBiomes.class.getResourceAsStream("/data/" + namespace + "/end_biome_properties.json");
-		if (inputstream != null) {
-			return JsonFactory.getJsonObject(inputstream);
-		}
-		else {
-			return EMPTY_JSON;
-		}
+		JsonObject config = JsonFactory.getResourceJson(EndBiome.getPropertiesPath(namespace));
+		return config == null ? EMPTY_JSON : config;
 	}
 	
 	/**
@@ -0,0 +1,32 @@
+package ru.betterend.registry;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+
+import net.fabricmc.fabric.api.command.v1.CommandRegistrationCallback;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import ru.betterend.BetterEnd;
+import ru.betterend.commands.BiomeMapCommand;
+import ru.betterend.commands.ConfigCommand;
+import ru.betterend.commands.PregenCommand;
+import ru.betterend.commands.ProfilerCommand;
+
+public class EndCommands {
+	public static void register() {
+		CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> {
+			registerCommands(dispatcher);
+		});
+	}
+	
+	private static void registerCommands(CommandDispatcher<ServerCommandSource> dispatcher) {
+		LiteralArgumentBuilder<ServerCommandSource> root = CommandManager.literal(BetterEnd.MOD_ID).requires((source) -> {
+			return source.hasPermissionLevel(2);
+		});
+		root.then(ConfigCommand.build());
+		root.then(ProfilerCommand.build());
+		root.then(PregenCommand.build());
+		root.then(BiomeMapCommand.build());
+		dispatcher.register(root);
+	}
+}
@@ -31,6 +31,8 @@ import ru.betterend.blocks.BlockProperties;
 import ru.betterend.blocks.EndPortalBlock;
 import ru.betterend.blocks.RunedFlavolite;
 import ru.betterend.blocks.entities.EternalPedestalEntity;
+import ru.betterend.jfr.JFR;
+import ru.betterend.jfr.PortalSearchEvent;
 import ru.betterend.registry.EndBlocks;
 import ru.betterend.registry.EndTags;
 
@@ -231,6 +233,25 @@ public class EternalRitual {
 	}
 	
 	private BlockPos findPortalPos() {
+		PortalSearchEvent event = JFR.AVAILABLE ? new PortalSearchEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+		BlockPos exitPos = this.searchPortalPos();
+		if (event != null && event.shouldCommit()) {
+			event.dimension = this.getTargetWorld().getRegistryKey().getValue().toString();
+			event.originX = center.getX();
+			event.originY = center.getY();
+			event.originZ = center.getZ();
+			event.exitX = exitPos.getX();
+			event.exitY = exitPos.getY();
+			event.exitZ = exitPos.getZ();
+			event.commit();
+		}
+		return exitPos;
+	}
+	
+	private BlockPos searchPortalPos() {
 		MinecraftServer server = world.getServer();
 		ServerWorld targetWorld = (ServerWorld) this.getTargetWorld();
 		Registry<DimensionType> registry = server.getRegistryManager().getDimensionTypes();
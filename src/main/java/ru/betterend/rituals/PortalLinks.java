@@ -0,0 +1,71 @@
+package ru.betterend.rituals;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.PersistentState;
+
+/**
+ * Links between portals of one world and portal blocks in target world.
+ * Keys are lowest corners of source portals, values are positions of portal blocks
+ * that were found by exit search. Links are validated by caller and removed when broken.
+ */
+public class PortalLinks extends PersistentState {
+	private static final String KEY = "betterend_portal_links";
+	private static final long MISSING = Long.MIN_VALUE;
+	
+	private final Long2LongMap links = new Long2LongOpenHashMap();
+	
+	public PortalLinks() {
+		super(KEY);
+		links.defaultReturnValue(MISSING);
+	}
+	
+	public static PortalLinks get(ServerWorld world) {
+		return world.getPersistentStateManager().getOrCreate(PortalLinks::new, KEY);
+	}
+	
+	public BlockPos getLink(BlockPos portal) {
+		long target = links.get(portal.asLong());
+		return target == MISSING ? null : BlockPos.fromLong(target);
+	}
+	
+	public void setLink(BlockPos portal, BlockPos target) {
+		links.put(portal.asLong(), target.asLong());
+		markDirty();
+	}
+	
+	public void removeLink(BlockPos portal) {
+		if (links.remove(portal.asLong()) != MISSING) {
+			markDirty();
+		}
+	}
+	
+	@Override
+	public void fromTag(CompoundTag tag) {
+		links.clear();
+		long[] portals = tag.getLongArray("portals");
+		long[] targets = tag.getLongArray("targets");
+		int count = Math.min(portals.length, targets.length);
+		for (int i = 0; i < count; i++) {
+			links.put(portals[i], targets[i]);
+		}
+	}
+	
+	@Override
+	public CompoundTag toTag(CompoundTag tag) {
+		long[] portals = new long[links.size()];
+		long[] targets = new long[links.size()];
+		int index = 0;
+		for (Long2LongMap.Entry entry: links.long2LongEntrySet()) {
+			portals[index] = entry.getLongKey();
+			targets[index] = entry.getLongValue();
+			index++;
+		}
+		tag.putLongArray("portals", portals);
+		tag.putLongArray("targets", targets);
+		return tag;
+	}
+}
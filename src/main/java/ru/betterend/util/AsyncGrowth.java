@@ -0,0 +1,525 @@
+package ru.betterend.util;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.fluid.Fluid;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Util;
+import net.minecraft.util.collection.PackedIntegerArray;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.ChunkRegion;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.StructureWorldAccess;
+import net.minecraft.world.TickPriority;
+import net.minecraft.world.TickScheduler;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.IdListPalette;
+import net.minecraft.world.chunk.Palette;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.ProtoChunk;
+import net.minecraft.world.chunk.UpgradeData;
+import net.minecraft.world.chunk.WorldChunk;
+import ru.betterend.BetterEnd;
+import ru.betterend.config.ConfigKeeper.BooleanEntry;
+import ru.betterend.config.ConfigKeeper.IntegerEntry;
+import ru.betterend.mixin.common.PalettedContainerAccessor;
+import ru.betterend.world.generator.SurfaceIndex;
+
+/**
+ * Grows large features (trees from saplings) outside of server thread. Surrounding chunks are copied on server thread,
+ * feature is generated in the copy by worker and resulting blocks are placed back in limited batches each tick.
+ * If any position that feature changed or read was modified in the world meanwhile growth is rejected and started
+ * again from new copy. Only sections within reach of growing block are copied (palette and packed data are cloned),
+ * if feature touches other non-empty sections it is generated again on server thread.
+ */
+public class AsyncGrowth {
+	private static final BooleanEntry ENABLED = BetterEnd.CONFIG.getBooleanEntry("growth", "async_growth", true);
+	private static final IntegerEntry BLOCKS_PER_TICK = BetterEnd.CONFIG.getIntEntry("growth", "blocks_per_tick", 1024);
+	private static final int MAX_ATTEMPTS = 3;
+	private static final int REACH_DOWN = 16;
+	
+	private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(
+		new ThreadFactoryBuilder().setNameFormat("BetterEnd Growth Worker").setDaemon(true).build()
+	);
+	private static final Queue<Growth> READY = new ConcurrentLinkedQueue<Growth>();
+	private static final List<Growth> PLACING = Lists.newArrayList();
+	private static final Map<ServerWorld, Set<BlockPos>> PENDING = Maps.newHashMap();
+	
+	/**
+	 * Feature generation that will be executed on worker thread.
+	 */
+	@FunctionalInterface
+	public static interface GrowthFunction {
+		public abstract void grow(StructureWorldAccess world, Random random);
+	}
+	
+	/**
+	 * Start growth at position. Feature is generated immediately if async growth is disabled
+	 * or if some chunk in reach is not loaded.
+	 * @param world - {@link ServerWorld} to grow in
+	 * @param pos - {@link BlockPos} of growing block, growth is cancelled if block is changed before placing
+	 * @param random - {@link Random} used to seed worker random
+	 * @param reach - max horizontal distance in blocks of feature blocks from growing block
+	 * @param height - max height in blocks of feature above growing block
+	 * @param function - {@link GrowthFunction} that generates feature
+	 */
+	public static void grow(ServerWorld world, BlockPos pos, Random random, int reach, int height, GrowthFunction function) {
+		if (!ENABLED.getValue()) {
+			function.grow(world, random);
+			return;
+		}
+		Set<BlockPos> pending = getPending(world);
+		if (pending.contains(pos)) {
+			return;
+		}
+		Growth growth = new Growth(world, pos.toImmutable(), random.nextLong(), reach, height, function);
+		if (!submit(growth)) {
+			function.grow(world, random);
+			return;
+		}
+		pending.add(growth.pos);
+	}
+	
+	public static void onServerTick() {
+		Growth growth;
+		while ((growth = READY.poll()) != null) {
+			if (growth.failed || !growth.isGrowing()) {
+				getPending(growth.world).remove(growth.pos);
+			}
+			else if (growth.outOfRange) {
+				BetterEnd.LOGGER.debug("Growth at {} is out of copied sections, growing on server thread", growth.pos);
+				getPending(growth.world).remove(growth.pos);
+				growth.function.grow(growth.world, new Random(growth.seed));
+			}
+			else if (growth.isValid()) {
+				PLACING.add(growth);
+			}
+			else if (++growth.attempts < MAX_ATTEMPTS && submit(growth)) {
+				BetterEnd.LOGGER.debug("Growth at {} was changed during generation, retrying", growth.pos);
+			}
+			else {
+				getPending(growth.world).remove(growth.pos);
+			}
+		}
+		
+		int budget = Math.max(1, BLOCKS_PER_TICK.getValue());
+		Iterator<Growth> iterator = PLACING.iterator();
+		while (budget > 0 && iterator.hasNext()) {
+			growth = iterator.next();
+			budget = growth.place(budget);
+			if (growth.isPlaced()) {
+				growth.scheduleTicks();
+				getPending(growth.world).remove(growth.pos);
+				iterator.remove();
+			}
+		}
+	}
+	
+	public static void onServerStopped() {
+		READY.clear();
+		PLACING.clear();
+		PENDING.clear();
+	}
+	
+	private static Set<BlockPos> getPending(ServerWorld world) {
+		Set<BlockPos> pending = PENDING.get(world);
+		if (pending == null) {
+			pending = Sets.newHashSet();
+			PENDING.put(world, pending);
+		}
+		return pending;
+	}
+	
+	private static boolean submit(Growth growth) {
+		long start = Util.getMeasuringTimeNano();
+		GrowthRegion region = growth.copyRegion();
+		if (region == null) {
+			return false;
+		}
+		BetterEnd.LOGGER.debug("Copied {} sections for growth at {} in {} us", region.copiedSections, growth.pos, (Util.getMeasuringTimeNano() - start) / 1000);
+		growth.failed = true;
+		growth.outOfRange = false;
+		WORKER.execute(() -> {
+			try {
+				growth.function.grow(region, new Random(growth.seed));
+				growth.changes = region.changes;
+				growth.reads = region.reads;
+				growth.blockTicks = region.blockTicks.ticks;
+				growth.fluidTicks = region.fluidTicks.ticks;
+				growth.failed = false;
+			}
+			catch (Exception e) {
+				BetterEnd.LOGGER.warning("Unable to grow feature at {}", growth.pos, e);
+			}
+			finally {
+				// Errors are not caught, but growth is still returned to release its position
+				READY.add(growth);
+			}
+		});
+		return true;
+	}
+	
+	private static final class Growth {
+		final ServerWorld world;
+		final BlockPos pos;
+		final BlockState state;
+		final long seed;
+		final int reach;
+		final int height;
+		final GrowthFunction function;
+		volatile Map<BlockPos, Change> changes;
+		volatile Map<BlockPos, BlockState> reads;
+		volatile List<GrowthTick<Block>> blockTicks;
+		volatile List<GrowthTick<Fluid>> fluidTicks;
+		volatile boolean failed;
+		volatile boolean outOfRange;
+		Iterator<Entry<BlockPos, Change>> iterator;
+		int attempts;
+		
+		Growth(ServerWorld world, BlockPos pos, long seed, int reach, int height, GrowthFunction function) {
+			this.world = world;
+			this.pos = pos;
+			this.state = world.getBlockState(pos);
+			this.seed = seed;
+			this.reach = reach;
+			this.height = height;
+			this.function = function;
+		}
+		
+		/**
+		 * Copy loaded chunks around growing block, null if any of them is not loaded. Region is a square of chunks
+		 * around growing block (region requires it), only sections within reach are copied.
+		 */
+		GrowthRegion copyRegion() {
+			int cx = pos.getX() >> 4;
+			int cz = pos.getZ() >> 4;
+			int minX = (pos.getX() - reach) >> 4;
+			int maxX = (pos.getX() + reach) >> 4;
+			int minZ = (pos.getZ() - reach) >> 4;
+			int maxZ = (pos.getZ() + reach) >> 4;
+			int radius = Math.max(Math.max(cx - minX, maxX - cx), Math.max(cz - minZ, maxZ - cz));
+			int minSection = (pos.getY() - REACH_DOWN) >> 4;
+			int maxSection = (pos.getY() + height) >> 4;
+			List<Chunk> chunks = Lists.newArrayList();
+			int copied = 0;
+			for (int z = cz - radius; z <= cz + radius; z++) {
+				for (int x = cx - radius; x <= cx + radius; x++) {
+					WorldChunk chunk = world.getChunkManager().getWorldChunk(x, z, false);
+					if (chunk == null) {
+						return null;
+					}
+					boolean inReach = x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+					ProtoChunk copy = new ProtoChunk(chunk.getPos(), UpgradeData.NO_UPGRADE_DATA);
+					ChunkSection[] sections = chunk.getSectionArray();
+					ChunkSection[] copySections = copy.getSectionArray();
+					for (int i = 0; i < sections.length; i++) {
+						if (ChunkSection.isEmpty(sections[i])) {
+							continue;
+						}
+						if (inReach && i >= minSection && i <= maxSection) {
+							copySections[i] = copySection(sections[i]);
+							copied++;
+						}
+						else {
+							copySections[i] = new MissingSection(sections[i].getYOffset(), this);
+						}
+					}
+					for (Entry<Heightmap.Type, Heightmap> entry: chunk.getHeightmaps()) {
+						copy.setHeightmap(entry.getKey(), entry.getValue().asLongArray().clone());
+					}
+					chunks.add(copy);
+				}
+			}
+			return new GrowthRegion(world, chunks, seed, copied);
+		}
+		
+		boolean isGrowing() {
+			return world.isChunkLoaded(pos) && world.getBlockState(pos) == state;
+		}
+		
+		/**
+		 * Growth is valid if no position that feature changed or read was modified in the world since copy was made.
+		 */
+		boolean isValid() {
+			for (Entry<BlockPos, Change> entry: changes.entrySet()) {
+				if (!isUnchanged(entry.getKey(), entry.getValue().original)) {
+					return false;
+				}
+			}
+			for (Entry<BlockPos, BlockState> entry: reads.entrySet()) {
+				if (!isUnchanged(entry.getKey(), entry.getValue())) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		private boolean isUnchanged(BlockPos pos, BlockState state) {
+			return world.isChunkLoaded(pos) && world.getBlockState(pos) == state;
+		}
+		
+		/**
+		 * Place changes until budget is spent. Positions that were modified after validation are skipped.
+		 * @return remaining budget
+		 */
+		int place(int budget) {
+			if (iterator == null) {
+				iterator = changes.entrySet().iterator();
+			}
+			while (budget > 0 && iterator.hasNext()) {
+				Entry<BlockPos, Change> entry = iterator.next();
+				BlockPos changed = entry.getKey();
+				Change change = entry.getValue();
+				if (world.isChunkLoaded(changed) && world.getBlockState(changed) == change.original) {
+					world.setBlockState(changed, change.state, change.flags);
+				}
+				budget--;
+			}
+			return budget;
+		}
+		
+		boolean isPlaced() {
+			return !iterator.hasNext();
+		}
+		
+		/**
+		 * Schedule ticks that feature scheduled in the copy.
+		 */
+		void scheduleTicks() {
+			for (GrowthTick<Block> tick: blockTicks) {
+				world.getBlockTickScheduler().schedule(tick.pos, tick.object, tick.delay, tick.priority);
+			}
+			for (GrowthTick<Fluid> tick: fluidTicks) {
+				world.getFluidTickScheduler().schedule(tick.pos, tick.object, tick.delay, tick.priority);
+			}
+		}
+	}
+	
+	private static final class Change {
+		final BlockState original;
+		BlockState state;
+		int flags;
+		
+		Change(BlockState original) {
+			this.original = original;
+		}
+	}
+	
+	/**
+	 * Region of copied chunks that records all block changes instead of notifying the world.
+	 * First read state of every position that was not changed before is recorded for validation.
+	 */
+	private static final class GrowthRegion extends ChunkRegion {
+		final Map<BlockPos, Change> changes = Maps.newLinkedHashMap();
+		final Map<BlockPos, BlockState> reads = Maps.newHashMap();
+		final TickRecorder<Block> blockTicks = new TickRecorder<Block>();
+		final TickRecorder<Fluid> fluidTicks = new TickRecorder<Fluid>();
+		final Random growthRandom;
+		final int copiedSections;
+		
+		GrowthRegion(ServerWorld world, List<Chunk> chunks, long seed, int copiedSections) {
+			super(world, chunks);
+			this.growthRandom = new Random(seed);
+			this.copiedSections = copiedSections;
+		}
+		
+		/**
+		 * World random is not thread-safe, region uses its own.
+		 */
+		@Override
+		public Random getRandom() {
+			return growthRandom;
+		}
+		
+		@Override
+		public BlockState getBlockState(BlockPos pos) {
+			BlockState state = super.getBlockState(pos);
+			onRead(pos, state);
+			return state;
+		}
+		
+		@Override
+		public FluidState getFluidState(BlockPos pos) {
+			BlockState state = super.getBlockState(pos);
+			onRead(pos, state);
+			return state.getFluidState();
+		}
+		
+		private void onRead(BlockPos pos, BlockState state) {
+			if (!changes.containsKey(pos) && !reads.containsKey(pos)) {
+				reads.put(pos.toImmutable(), state);
+			}
+		}
+		
+		@Override
+		public TickScheduler<Block> getBlockTickScheduler() {
+			return blockTicks;
+		}
+		
+		@Override
+		public TickScheduler<Fluid> getFluidTickScheduler() {
+			return fluidTicks;
+		}
+		
+		@Override
+		public boolean setBlockState(BlockPos pos, BlockState state, int flags, int maxUpdateDepth) {
+			Chunk chunk = this.getChunk(pos);
+			BlockState original = chunk.getBlockState(pos);
+			chunk.setBlockState(pos, state, false);
+			
+			pos = pos.toImmutable();
+			Change change = changes.get(pos);
+			if (change == null) {
+				change = new Change(original);
+				changes.put(pos, change);
+			}
+			change.state = state;
+			change.flags = flags;
+			
+			SurfaceIndex.get(this).onBlockSet(pos, state);
+			return true;
+		}
+	}
+	
+	/**
+	 * Copy section without serialization. Palettes assign indices in order of addition and new palette
+	 * of the same size starts with the same default state, so adding states in index order gives the same indices
+	 * and packed data can be cloned as is. Global palette has no own states. If indices don't match states are copied one by one.
+	 */
+	@SuppressWarnings("unchecked")
+	private static ChunkSection copySection(ChunkSection section) {
+		PalettedContainerAccessor<BlockState> source = (PalettedContainerAccessor<BlockState>) section.getContainer();
+		ChunkSection copy = new ChunkSection(section.getYOffset());
+		PalettedContainer<BlockState> container = copy.getContainer();
+		PalettedContainerAccessor<BlockState> target = (PalettedContainerAccessor<BlockState>) container;
+		
+		target.callSetPaletteSize(source.getPaletteSize());
+		Palette<BlockState> palette = source.getPalette();
+		if (!(palette instanceof IdListPalette)) {
+			Palette<BlockState> copyPalette = target.getPalette();
+			int size = 1 << source.getPaletteSize();
+			for (int i = 0; i < size; i++) {
+				BlockState state = palette.getByIndex(i);
+				if (state == null) {
+					break;
+				}
+				if (copyPalette.getIndex(state) != i) {
+					return copyStates(section);
+				}
+			}
+		}
+		
+		PackedIntegerArray data = source.getData();
+		target.setData(new PackedIntegerArray(data.getElementBits(), 4096, data.getStorage().clone()));
+		copy.calculateCounts();
+		return copy;
+	}
+	
+	private static ChunkSection copyStates(ChunkSection section) {
+		ChunkSection copy = new ChunkSection(section.getYOffset());
+		for (int y = 0; y < 16; y++) {
+			for (int x = 0; x < 16; x++) {
+				for (int z = 0; z < 16; z++) {
+					copy.setBlockState(x, y, z, section.getBlockState(x, y, z), false);
+				}
+			}
+		}
+		return copy;
+	}
+	
+	/**
+	 * Placeholder of non-empty section that was not copied, any access marks growth as out of range.
+	 */
+	private static final class MissingSection extends ChunkSection {
+		private final Growth growth;
+		
+		MissingSection(int yOffset, Growth growth) {
+			super(yOffset);
+			this.growth = growth;
+		}
+		
+		@Override
+		public boolean isEmpty() {
+			return false;
+		}
+		
+		@Override
+		public BlockState getBlockState(int x, int y, int z) {
+			growth.outOfRange = true;
+			return Blocks.AIR.getDefaultState();
+		}
+		
+		@Override
+		public FluidState getFluidState(int x, int y, int z) {
+			growth.outOfRange = true;
+			return Fluids.EMPTY.getDefaultState();
+		}
+		
+		@Override
+		public BlockState setBlockState(int x, int y, int z, BlockState state, boolean lock) {
+			growth.outOfRange = true;
+			return Blocks.AIR.getDefaultState();
+		}
+	}
+	
+	private static final class GrowthTick<T> {
+		final BlockPos pos;
+		final T object;
+		final int delay;
+		final TickPriority priority;
+		
+		GrowthTick(BlockPos pos, T object, int delay, TickPriority priority) {
+			this.pos = pos;
+			this.object = object;
+			this.delay = delay;
+			this.priority = priority;
+		}
+	}
+	
+	/**
+	 * Records ticks scheduled in the copy, they are scheduled in the world when growth is placed.
+	 */
+	private static final class TickRecorder<T> implements TickScheduler<T> {
+		final List<GrowthTick<T>> ticks = Lists.newArrayList();
+		
+		@Override
+		public boolean isScheduled(BlockPos pos, T object) {
+			for (GrowthTick<T> tick: ticks) {
+				if (tick.object == object && tick.pos.equals(pos)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		@Override
+		public void schedule(BlockPos pos, T object, int delay, TickPriority priority) {
+			ticks.add(new GrowthTick<T>(pos.toImmutable(), object, delay, priority));
+		}
+		
+		@Override
+		public boolean isTicking(BlockPos pos, T object) {
+			return false;
+		}
+	}
+}
\ No newline at end of file
@@ -1,16 +1,21 @@
 package ru.betterend.util;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.FallingBlock;
+import net.minecraft.block.LeavesBlock;
 import net.minecraft.state.property.BooleanProperty;
 import net.minecraft.state.property.Property;
 import net.minecraft.tag.BlockTags;
@@ -20,8 +25,14 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.BlockPos.Mutable;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3i;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.Heightmap;
 import net.minecraft.world.WorldAccess;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
 import ru.betterend.blocks.BlockBlueVine;
+import ru.betterend.blocks.BlockTerrain;
 import ru.betterend.blocks.basis.BlockDoublePlant;
 import ru.betterend.blocks.basis.BlockGlowingFur;
 import ru.betterend.blocks.basis.BlockVine;
@@ -40,7 +51,14 @@ public class BlocksHelper {
 	public static final int SET_SILENT = FLAG_UPDATE_BLOCK | FLAG_IGNORE_OBSERVERS | FLAG_SEND_CLIENT_CHANGES;
 	public static final Direction[] HORIZONTAL = makeHorizontal();
 	
-	private static final Mutable POS = new Mutable();
+	private static final Comparator<BlockPos> SCAN_ORDER = (p1, p2) -> {
+		int d = p1.getX() - p2.getX();
+		if (d != 0) {
+			return d;
+		}
+		d = p1.getZ() - p2.getZ();
+		return d != 0 ? d : p1.getY() - p2.getY();
+	};
 	protected static final BlockState AIR = Blocks.AIR.getDefaultState();
 
 	private static final Vec3i[] OFFSETS = new Vec3i[] {
@@ -64,28 +82,163 @@ public class BlocksHelper {
 	public static void setWithoutUpdate(WorldAccess world, BlockPos pos, Block block) {
 		world.setBlockState(pos, block.getDefaultState(), SET_SILENT);
 	}
+	
+	/**
+	 * Set block without updates and remember its position for {@link #fixBlocks(WorldAccess, Collection)}.
+	 */
+	public static void setWithoutUpdate(WorldAccess world, BlockPos pos, BlockState state, Set<BlockPos> changed) {
+		world.setBlockState(pos, state, SET_SILENT);
+		changed.add(pos.toImmutable());
+	}
 
+	/**
+	 * Count air blocks above position, up to maxDist - 1. Empty chunk sections are skipped
+	 * as a whole, and for full chunks everything above world surface heightmap is air.
+	 */
 	public static int upRay(WorldAccess world, BlockPos pos, int maxDist) {
+		if (maxDist <= 1) {
+			return 0;
+		}
+		Chunk chunk = world.getChunk(pos);
+		int height = world.getHeight();
+		return upRay(chunk, pos, maxDist, getTopSolid(world, chunk, pos, height));
+	}
+	
+	/**
+	 * Section skipping ray in one chunk.
+	 * @param top - highest Y that can contain non-air block in column
+	 */
+	static int upRay(Chunk chunk, BlockPos pos, int maxDist, int top) {
+		int limit = maxDist - 1;
+		if (limit <= 0) {
+			return 0;
+		}
+		
+		ChunkSection[] sections = chunk.getSectionArray();
+		int x = pos.getX() & 15;
+		int z = pos.getZ() & 15;
+		int y = pos.getY() + 1;
 		int length = 0;
-		for (int j = 1; j < maxDist && (world.isAir(pos.up(j))); j++)
-			length++;
+		while (length < limit) {
+			if (y > top) {
+				return limit;
+			}
+			int skip;
+			if (y < 0) {
+				skip = -y;
+			}
+			else {
+				ChunkSection section = sections[y >> 4];
+				if (ChunkSection.isEmpty(section)) {
+					skip = 16 - (y & 15);
+				}
+				else if (section.getBlockState(x, y & 15, z).isAir()) {
+					skip = 1;
+				}
+				else {
+					return length;
+				}
+			}
+			skip = Math.min(skip, limit - length);
+			length += skip;
+			y += skip;
+		}
 		return length;
 	}
 
+	/**
+	 * Count air blocks below position, up to maxDist - 1. Empty chunk sections are skipped
+	 * as a whole, and for full chunks everything above world surface heightmap is air.
+	 */
 	public static int downRay(WorldAccess world, BlockPos pos, int maxDist) {
+		if (maxDist <= 1) {
+			return 0;
+		}
+		Chunk chunk = world.getChunk(pos);
+		int height = world.getHeight();
+		return downRay(chunk, pos, maxDist, getTopSolid(world, chunk, pos, height));
+	}
+	
+	/**
+	 * Section skipping ray in one chunk.
+	 * @param top - highest Y that can contain non-air block in column
+	 */
+	static int downRay(Chunk chunk, BlockPos pos, int maxDist, int top) {
+		int limit = maxDist - 1;
+		if (limit <= 0) {
+			return 0;
+		}
+		
+		ChunkSection[] sections = chunk.getSectionArray();
+		int x = pos.getX() & 15;
+		int z = pos.getZ() & 15;
+		int y = pos.getY() - 1;
+		int length = 0;
+		while (length < limit) {
+			if (y < 0) {
+				return limit;
+			}
+			int skip;
+			if (y > top) {
+				skip = y - top;
+			}
+			else {
+				ChunkSection section = sections[y >> 4];
+				if (ChunkSection.isEmpty(section)) {
+					skip = (y & 15) + 1;
+				}
+				else if (section.getBlockState(x, y & 15, z).isAir()) {
+					skip = 1;
+				}
+				else {
+					return length;
+				}
+			}
+			skip = Math.min(skip, limit - length);
+			length += skip;
+			y -= skip;
+		}
+		return length;
+	}
+	
+	/**
+	 * Reference implementation of {@link #upRay(WorldAccess, BlockPos, int)}, checks every block.
+	 */
+	static int upRaySlow(BlockView world, BlockPos pos, int maxDist) {
+		int length = 0;
+		for (int j = 1; j < maxDist && world.getBlockState(pos.up(j)).isAir(); j++)
+			length++;
+		return length;
+	}
+	
+	/**
+	 * Reference implementation of {@link #downRay(WorldAccess, BlockPos, int)}, checks every block.
+	 */
+	static int downRaySlow(BlockView world, BlockPos pos, int maxDist) {
 		int length = 0;
-		for (int j = 1; j < maxDist && (world.isAir(pos.down(j))); j++)
+		for (int j = 1; j < maxDist && world.getBlockState(pos.down(j)).isAir(); j++)
 			length++;
 		return length;
 	}
 	
+	/**
+	 * Highest Y that can contain non-air block in column. Heightmaps are only trusted in full server chunks,
+	 * in proto chunks they can be missing or not updated yet and client only receives motion blocking one.
+	 */
+	private static int getTopSolid(WorldAccess world, Chunk chunk, BlockPos pos, int height) {
+		if (!world.isClient() && chunk instanceof WorldChunk) {
+			return Math.min(chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, pos.getX() & 15, pos.getZ() & 15), height - 1);
+		}
+		return height - 1;
+	}
+	
 	public static int downRayRep(WorldAccess world, BlockPos pos, int maxDist) {
-		POS.set(pos);
-		for (int j = 1; j < maxDist && (world.getBlockState(POS)).getMaterial().isReplaceable(); j++)
+		Mutable mut = pos.mutableCopy();
+		for (int j = 1; j < maxDist && (world.getBlockState(mut)).getMaterial().isReplaceable(); j++)
 		{
-			POS.setY(POS.getY() - 1);
+			mut.setY(mut.getY() - 1);
 		}
-		return pos.getY() - POS.getY();
+		return pos.getY() - mut.getY();
 	}
 
 	public static BlockState rotateHorizontal(BlockState state, BlockRotation rotation, Property<Direction> facing) {
@@ -129,152 +282,201 @@ public class BlocksHelper {
 			while (iterator.hasNext()) {
 				BlockPos pos = iterator.next();
 				BlocksHelper.setWithoutUpdate(world, pos, cover);
+				BlockTerrain.checkDecay(world, pos, cover);
 			}
 		}
 	}
 	
+	/**
+	 * Fix unsupported blocks (plants, vines, falling blocks, fluids) in the whole area between two points.
+	 * If feature knows which positions it changed prefer {@link #fixBlocks(WorldAccess, Collection)}.
+	 * @param world - {@link WorldAccess}
+	 * @param start - minimal corner of area
+	 * @param end - maximal corner of area
+	 */
 	public static void fixBlocks(WorldAccess world, BlockPos start, BlockPos end) {
-		BlockState state;
 		Set<BlockPos> doubleCheck = Sets.newHashSet();
+		Mutable pos = new Mutable();
 		for (int x = start.getX(); x <= end.getX(); x++) {
-			POS.setX(x);
 			for (int z = start.getZ(); z <= end.getZ(); z++) {
-				POS.setZ(z);
 				for (int y = start.getY(); y <= end.getY(); y++) {
-					POS.setY(y);
-					state = world.getBlockState(POS);
-					
-					if (state.getBlock() instanceof BlockGlowingFur) {
-						doubleCheck.add(POS.toImmutable());
-					}
-					
-					if (!state.canPlaceAt(world, POS)) {
+					fixBlock(world, pos.set(x, y, z), doubleCheck);
+				}
+			}
+		}
+		fixDoubleCheck(world, doubleCheck);
+	}
+	
+	/**
+	 * Fix unsupported blocks only around positions that were changed by feature, instead of scanning a whole box.
+	 * Each changed position and all its direct neighbours are checked in the same order as in box scan
+	 * (x, then z, then y from bottom to top).
+	 * @param world - {@link WorldAccess}
+	 * @param changed - {@link Collection} of changed positions
+	 */
+	public static void fixBlocks(WorldAccess world, Collection<BlockPos> changed) {
+		if (changed.isEmpty()) {
+			return;
+		}
+		
+		Set<BlockPos> check = Sets.newHashSetWithExpectedSize(changed.size() * 2);
+		for (BlockPos pos: changed) {
+			check.add(pos);
+			for (Direction dir: Direction.values()) {
+				check.add(pos.offset(dir));
+			}
+		}
+		
+		List<BlockPos> ordered = Lists.newArrayList(check);
+		ordered.sort(SCAN_ORDER);
+		
+		Set<BlockPos> doubleCheck = Sets.newHashSet();
+		Mutable pos = new Mutable();
+		for (BlockPos p: ordered) {
+			fixBlock(world, pos.set(p), doubleCheck);
+		}
+		fixDoubleCheck(world, doubleCheck);
+	}
+	
+	private static void fixBlock(WorldAccess world, Mutable pos, Set<BlockPos> doubleCheck) {
+		int y = pos.getY();
+		BlockState state = world.getBlockState(pos);
+		
+		if (state.getBlock() instanceof BlockGlowingFur) {
+			doubleCheck.add(pos.toImmutable());
+		}
+		
+		// Terrain covered by feature without updates
+		if (state.getBlock() instanceof BlockTerrain) {
+			BlockTerrain.checkDecay(world, pos.toImmutable(), state);
+		}
+		
+		if (!state.canPlaceAt(world, pos)) {
 
-						// Chorus
-						if (state.isOf(Blocks.CHORUS_PLANT)) {
-							Set<BlockPos> ends = Sets.newHashSet();
-							Set<BlockPos> add = Sets.newHashSet();
-							ends.add(POS.toImmutable());
+			// Chorus
+			if (state.isOf(Blocks.CHORUS_PLANT)) {
+				Set<BlockPos> ends = Sets.newHashSet();
+				Set<BlockPos> add = Sets.newHashSet();
+				ends.add(pos.toImmutable());
 
-							for (int i = 0; i < 64 && !ends.isEmpty(); i++) {
-								ends.forEach((pos) -> {
-									setWithoutUpdate(world, pos, AIR);
-									for (Direction dir : HORIZONTAL) {
-										BlockPos p = pos.offset(dir);
-										BlockState st = world.getBlockState(p);
-										if ((st.isOf(Blocks.CHORUS_PLANT) || st.isOf(Blocks.CHORUS_FLOWER)) && !st.canPlaceAt(world, p)) {
-											add.add(p);
-										}
-									}
-									BlockPos p = pos.up();
-									BlockState st = world.getBlockState(p);
-									if ((st.isOf(Blocks.CHORUS_PLANT) || st.isOf(Blocks.CHORUS_FLOWER)) && !st.canPlaceAt(world, p)) {
-										add.add(p);
-									}
-								});
-								ends.clear();
-								ends.addAll(add);
-								add.clear();
-							}
-						}
-						// Vines
-						else if (state.getBlock() instanceof BlockVine) {
-							while (world.getBlockState(POS).getBlock() instanceof BlockVine) {
-								setWithoutUpdate(world, POS, AIR);
-								POS.setY(POS.getY() - 1);
+				for (int i = 0; i < 64 && !ends.isEmpty(); i++) {
+					ends.forEach((cpos) -> {
+						setWithoutUpdate(world, cpos, AIR);
+						for (Direction dir : HORIZONTAL) {
+							BlockPos p = cpos.offset(dir);
+							BlockState st = world.getBlockState(p);
+							if ((st.isOf(Blocks.CHORUS_PLANT) || st.isOf(Blocks.CHORUS_FLOWER)) && !st.canPlaceAt(world, p)) {
+								add.add(p);
 							}
 						}
-						// Liquids
-						else if (!state.getFluidState().isEmpty()) {
-							POS.setY(y - 1);
-							if (world.isAir(POS)) {
-								POS.setY(y);
-								while (!world.getFluidState(POS).isEmpty()) {
-									setWithoutUpdate(world, POS, AIR);
-									POS.setY(POS.getY() + 1);
-								}
-								continue;
-							}
-							BlockState st;
-							for (Direction dir : HORIZONTAL) {
-								if ((st = world.getBlockState(POS.offset(dir))).getMaterial().isReplaceable() && st.getFluidState().isEmpty()) {
-									world.getFluidTickScheduler().schedule(POS, state.getFluidState().getFluid(), 0);
-									break;
-								}
-							}
-							if ((st = world.getBlockState(POS.up())).getMaterial().isReplaceable() && st.getFluidState().isEmpty()) {
-								world.getFluidTickScheduler().schedule(POS, state.getFluidState().getFluid(), 0);
-							}
+						BlockPos p = cpos.up();
+						BlockState st = world.getBlockState(p);
+						if ((st.isOf(Blocks.CHORUS_PLANT) || st.isOf(Blocks.CHORUS_FLOWER)) && !st.canPlaceAt(world, p)) {
+							add.add(p);
 						}
-						// Falling blocks
-						else if (state.getBlock() instanceof FallingBlock) {
-							BlockState falling = state;
-
-							POS.setY(POS.getY() - 1);
-							state = world.getBlockState(POS);
+					});
+					ends.clear();
+					ends.addAll(add);
+					add.clear();
+				}
+			}
+			// Vines
+			else if (state.getBlock() instanceof BlockVine) {
+				while (world.getBlockState(pos).getBlock() instanceof BlockVine) {
+					setWithoutUpdate(world, pos, AIR);
+					pos.setY(pos.getY() - 1);
+				}
+			}
+			// Liquids
+			else if (!state.getFluidState().isEmpty()) {
+				pos.setY(y - 1);
+				if (world.isAir(pos)) {
+					pos.setY(y);
+					while (!world.getFluidState(pos).isEmpty()) {
+						setWithoutUpdate(world, pos, AIR);
+						pos.setY(pos.getY() + 1);
+					}
+					return;
+				}
+				BlockState st;
+				for (Direction dir : HORIZONTAL) {
+					if ((st = world.getBlockState(pos.offset(dir))).getMaterial().isReplaceable() && st.getFluidState().isEmpty()) {
+						world.getFluidTickScheduler().schedule(pos, state.getFluidState().getFluid(), 0);
+						break;
+					}
+				}
+				if ((st = world.getBlockState(pos.up())).getMaterial().isReplaceable() && st.getFluidState().isEmpty()) {
+					world.getFluidTickScheduler().schedule(pos, state.getFluidState().getFluid(), 0);
+				}
+			}
+			// Falling blocks
+			else if (state.getBlock() instanceof FallingBlock) {
+				BlockState falling = state;
 
-							int ray = downRayRep(world, POS.toImmutable(), 64);
-							if (ray > 32) {
-								BlocksHelper.setWithoutUpdate(world, POS, Blocks.END_STONE.getDefaultState());
-								if (world.getRandom().nextBoolean()) {
-									POS.setY(POS.getY() - 1);
-									state = world.getBlockState(POS);
-									BlocksHelper.setWithoutUpdate(world, POS, Blocks.END_STONE.getDefaultState());
-								}
-							}
-							else {
-								POS.setY(y);
-								boolean place = true;
-								for (Direction dir : HORIZONTAL) {
-									state = world.getBlockState(POS.offset(dir));
-									if (!state.getFluidState().isEmpty()) {
-										BlocksHelper.setWithoutUpdate(world, POS, state);
-										place = false;
-										break;
-									}
-								}
-								if (place) {
-									BlocksHelper.setWithoutUpdate(world, POS, AIR);
-								}
+				pos.setY(pos.getY() - 1);
+				state = world.getBlockState(pos);
 
-								POS.setY(y - ray);
-								BlocksHelper.setWithoutUpdate(world, POS, falling);
-							}
+				int ray = downRayRep(world, pos.toImmutable(), 64);
+				if (ray > 32) {
+					BlocksHelper.setWithoutUpdate(world, pos, Blocks.END_STONE.getDefaultState());
+					if (world.getRandom().nextBoolean()) {
+						pos.setY(pos.getY() - 1);
+						state = world.getBlockState(pos);
+						BlocksHelper.setWithoutUpdate(world, pos, Blocks.END_STONE.getDefaultState());
+					}
+				}
+				else {
+					pos.setY(y);
+					boolean place = true;
+					for (Direction dir : HORIZONTAL) {
+						state = world.getBlockState(pos.offset(dir));
+						if (!state.getFluidState().isEmpty()) {
+							BlocksHelper.setWithoutUpdate(world, pos, state);
+							place = false;
+							break;
 						}
-						// Blocks without support
-						else {
-							// Blue Vine
-							if (state.getBlock() instanceof BlockBlueVine) {
-								while (state.isOf(EndBlocks.BLUE_VINE) || state.isOf(EndBlocks.BLUE_VINE_LANTERN) || state.isOf(EndBlocks.BLUE_VINE_FUR)) {
-									BlocksHelper.setWithoutUpdate(world, POS, AIR);
-									for (Direction dir : HORIZONTAL) {
-										BlockPos p = POS.offset(dir);
-										state = world.getBlockState(p);
-										if (state.getBlock() instanceof BlockGlowingFur) {
-											BlocksHelper.setWithoutUpdate(world, p, AIR);
-										}
-										world.getBlockTickScheduler().schedule(p, world.getBlockState(p).getBlock(), 0);
-									}
-									POS.setY(POS.getY() + 1);
-									state = world.getBlockState(POS);
-								}
-							}
-							// Double plants
-							if (state.getBlock() instanceof BlockDoublePlant) {
-								BlocksHelper.setWithoutUpdate(world, POS, AIR);
-								POS.setY(POS.getY() + 1);
-								BlocksHelper.setWithoutUpdate(world, POS, AIR);
-							}
-							// Other blocks
-							else {
-								BlocksHelper.setWithoutUpdate(world, POS, AIR);
+					}
+					if (place) {
+						BlocksHelper.setWithoutUpdate(world, pos, AIR);
+					}
+
+					pos.setY(y - ray);
+					BlocksHelper.setWithoutUpdate(world, pos, falling);
+				}
+			}
+			// Blocks without support
+			else {
+				// Blue Vine
+				if (state.getBlock() instanceof BlockBlueVine) {
+					while (state.isOf(EndBlocks.BLUE_VINE) || state.isOf(EndBlocks.BLUE_VINE_LANTERN) || state.isOf(EndBlocks.BLUE_VINE_FUR)) {
+						BlocksHelper.setWithoutUpdate(world, pos, AIR);
+						for (Direction dir : HORIZONTAL) {
+							BlockPos p = pos.offset(dir);
+							state = world.getBlockState(p);
+							if (state.getBlock() instanceof BlockGlowingFur) {
+								BlocksHelper.setWithoutUpdate(world, p, AIR);
 							}
+							world.getBlockTickScheduler().schedule(p, world.getBlockState(p).getBlock(), 0);
 						}
+						pos.setY(pos.getY() + 1);
+						state = world.getBlockState(pos);
 					}
 				}
+				// Double plants
+				if (state.getBlock() instanceof BlockDoublePlant) {
+					BlocksHelper.setWithoutUpdate(world, pos, AIR);
+					pos.setY(pos.getY() + 1);
+					BlocksHelper.setWithoutUpdate(world, pos, AIR);
+				}
+				// Other blocks
+				else {
+					BlocksHelper.setWithoutUpdate(world, pos, AIR);
+				}
 			}
 		}
-		
+	}
+	
+	private static void fixDoubleCheck(WorldAccess world, Set<BlockPos> doubleCheck) {
 		doubleCheck.forEach((pos) -> {
 			if (!world.getBlockState(pos).canPlaceAt(world, pos)) {
 				BlocksHelper.setWithoutUpdate(world, pos, AIR);
@@ -282,6 +484,39 @@ public class BlocksHelper {
 		});
 	}
 	
+	/**
+	 * Lower {@link LeavesBlock#DISTANCE} of leaves around logs. Distance is counted along connected leaves like vanilla does,
+	 * multi-source BFS visits each leaf once instead of scanning a cube around every log.
+	 * @param world - {@link WorldAccess} where leaves are placed
+	 * @param logs - positions of logs to count distance from
+	 */
+	public static void updateLeavesDistance(WorldAccess world, Collection<BlockPos> logs) {
+		Set<BlockPos> visited = Sets.newHashSet(logs);
+		List<BlockPos> front = Lists.newArrayList(logs);
+		List<BlockPos> next = Lists.newArrayList();
+		for (int distance = 1; distance < 7 && !front.isEmpty(); distance++) {
+			for (BlockPos center: front) {
+				for (Direction dir: Direction.values()) {
+					BlockPos pos = center.offset(dir);
+					if (!visited.add(pos)) {
+						continue;
+					}
+					BlockState state = world.getBlockState(pos);
+					if (state.getBlock() instanceof LeavesBlock) {
+						if (state.get(LeavesBlock.DISTANCE) > distance) {
+							setWithoutUpdate(world, pos, state.with(LeavesBlock.DISTANCE, distance));
+						}
+						next.add(pos);
+					}
+				}
+			}
+			List<BlockPos> swap = front;
+			front = next;
+			next = swap;
+			next.clear();
+		}
+	}
+	
 	public static boolean isEndNylium(Block block) {
 		return block.isIn(BlockTags.NYLIUM) && block.isIn(EndTags.END_GROUND);
 	}
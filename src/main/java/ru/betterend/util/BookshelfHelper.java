@@ -0,0 +1,275 @@
+package ru.betterend.util;
+
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.tag.BlockTags;
+import net.minecraft.tag.TagGroup;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import ru.betterend.interfaces.BookshelfCacheHolder;
+import ru.betterend.registry.EndTags;
+
+/**
+ * Bookshelves around enchanting tables. Results are cached per table position and removed when any block
+ * of the table shell is changed, entries also expire after a few seconds in case blocks were changed
+ * without {@link World#setBlockState} (chunk reloads on client, external world edits).
+ * Each world owns its {@link Cache}, which is only used from the thread of that world.
+ */
+public class BookshelfHelper {
+	private static final int EXPIRE_TICKS = 100;
+	private static final int MAX_ENTRIES = 1024;
+	private static volatile Bookshelves bookshelves;
+	
+	/**
+	 * Check if block is in {@link EndTags#BOOKSHELVES}, tag content is cached until tags are reloaded.
+	 */
+	public static boolean isBookshelf(BlockState state) {
+		return getBookshelves().blocks.contains(state.getBlock());
+	}
+	
+	private static Bookshelves getBookshelves() {
+		TagGroup<Block> group = BlockTags.getTagGroup();
+		Bookshelves shelves = bookshelves;
+		if (shelves == null || shelves.group != group) {
+			shelves = new Bookshelves(group);
+			bookshelves = shelves;
+		}
+		return shelves;
+	}
+	
+	/**
+	 * Enchanting power of table, same as vanilla bookshelf count but with {@link EndTags#BOOKSHELVES}.
+	 * @param world - {@link World} with table
+	 * @param pos - {@link BlockPos} of table
+	 * @return number of bookshelves
+	 */
+	public static int getPower(World world, BlockPos pos) {
+		Cache cache = getCache(world);
+		Entry entry = cache.get(cache.power, pos, world.getTime());
+		if (entry == null) {
+			entry = cache.put(cache.power, pos, new Entry(computePower(world, pos), world.getTime()));
+		}
+		return (int) entry.value;
+	}
+	
+	/**
+	 * Bookshelves that emit particles to the table, bit index is {@link #getParticleIndex(int, int, int)}.
+	 * @param world - {@link World} with table
+	 * @param pos - {@link BlockPos} of table
+	 * @return mask of bookshelves
+	 */
+	public static long getParticleMask(World world, BlockPos pos) {
+		Cache cache = getCache(world);
+		Entry entry = cache.get(cache.particles, pos, world.getTime());
+		if (entry == null) {
+			entry = cache.put(cache.particles, pos, new Entry(computeParticleMask(world, pos), world.getTime()));
+		}
+		return entry.value;
+	}
+	
+	public static int getParticleIndex(int x, int y, int z) {
+		return ((x + 2) * 5 + z + 2) * 2 + y;
+	}
+	
+	/**
+	 * Remove cached tables which shell contains changed position.
+	 * @param cache - {@link Cache} of the world, should not be empty
+	 */
+	public static void onBlockChanged(Cache cache, World world, BlockPos pos) {
+		cache.removeExpired(world.getTime());
+		if (!cache.hasTablesNear(pos)) {
+			return;
+		}
+		for (int x = -2; x <= 2; x++) {
+			for (int z = -2; z <= 2; z++) {
+				for (int y = -1; y <= 0; y++) {
+					long key = BlockPos.asLong(pos.getX() + x, pos.getY() + y, pos.getZ() + z);
+					cache.remove(cache.power, key);
+					cache.remove(cache.particles, key);
+				}
+			}
+		}
+	}
+	
+	private static Cache getCache(World world) {
+		Cache cache = ((BookshelfCacheHolder) world).beGetBookshelfCache();
+		Bookshelves shelves = getBookshelves();
+		if (cache.shelves != shelves) {
+			cache.clear();
+			cache.shelves = shelves;
+		}
+		cache.removeExpired(world.getTime());
+		return cache;
+	}
+	
+	private static int computePower(World world, BlockPos pos) {
+		int power = 0;
+		for (int j = -1; j <= 1; ++j) {
+			for (int k = -1; k <= 1; ++k) {
+				if ((j != 0 || k != 0) && world.isAir(pos.add(k, 0, j)) && world.isAir(pos.add(k, 1, j))) {
+					for (int y = 0; y <= 1; y++) {
+						if (isBookshelf(world.getBlockState(pos.add(k * 2, y, j * 2)))) {
+							++power;
+						}
+						if (k != 0 && j != 0) {
+							if (isBookshelf(world.getBlockState(pos.add(k * 2, y, j)))) {
+								++power;
+							}
+							if (isBookshelf(world.getBlockState(pos.add(k, y, j * 2)))) {
+								++power;
+							}
+						}
+					}
+				}
+			}
+		}
+		return power;
+	}
+	
+	private static long computeParticleMask(World world, BlockPos pos) {
+		long mask = 0;
+		for (int px = -2; px <= 2; ++px) {
+			for (int pz = -2; pz <= 2; ++pz) {
+				if (px > -2 && px < 2 && pz == -1) {
+					pz = 2;
+				}
+				if (!world.isAir(pos.add(px / 2, 0, pz / 2))) {
+					continue;
+				}
+				for (int py = 0; py <= 1; ++py) {
+					if (isBookshelf(world.getBlockState(pos.add(px, py, pz)))) {
+						mask |= 1L << getParticleIndex(px, py, pz);
+					}
+				}
+			}
+		}
+		return mask;
+	}
+	
+	private static final class Bookshelves {
+		final TagGroup<Block> group;
+		final Set<Block> blocks = Sets.newIdentityHashSet();
+		
+		Bookshelves(TagGroup<Block> group) {
+			this.group = group;
+			blocks.addAll(EndTags.BOOKSHELVES.values());
+		}
+	}
+	
+	/**
+	 * Cached tables of one world with count of entries per chunk, so block changes far from tables are skipped
+	 * with one lookup. Expired entries are removed every {@link #EXPIRE_TICKS} ticks.
+	 */
+	public static final class Cache {
+		private final Long2ObjectMap<Entry> power = new Long2ObjectOpenHashMap<Entry>();
+		private final Long2ObjectMap<Entry> particles = new Long2ObjectOpenHashMap<Entry>();
+		private final Long2IntMap chunks = new Long2IntOpenHashMap();
+		private Bookshelves shelves;
+		private long lastCleanup;
+		
+		public boolean isEmpty() {
+			return chunks.isEmpty();
+		}
+		
+		private Entry get(Long2ObjectMap<Entry> map, BlockPos pos, long time) {
+			Entry entry = map.get(pos.asLong());
+			return entry != null && !entry.isExpired(time) ? entry : null;
+		}
+		
+		private Entry put(Long2ObjectMap<Entry> map, BlockPos pos, Entry entry) {
+			if (map.size() >= MAX_ENTRIES) {
+				clear();
+			}
+			if (map.put(pos.asLong(), entry) == null) {
+				chunks.put(getChunkKey(pos.asLong()), chunks.get(getChunkKey(pos.asLong())) + 1);
+			}
+			return entry;
+		}
+		
+		private void remove(Long2ObjectMap<Entry> map, long key) {
+			if (map.remove(key) != null) {
+				onRemoved(key);
+			}
+		}
+		
+		private void onRemoved(long key) {
+			long chunk = getChunkKey(key);
+			int count = chunks.get(chunk) - 1;
+			if (count > 0) {
+				chunks.put(chunk, count);
+			}
+			else {
+				chunks.remove(chunk);
+			}
+		}
+		
+		private boolean hasTablesNear(BlockPos pos) {
+			int x1 = (pos.getX() - 2) >> 4;
+			int x2 = (pos.getX() + 2) >> 4;
+			int z1 = (pos.getZ() - 2) >> 4;
+			int z2 = (pos.getZ() + 2) >> 4;
+			for (int x = x1; x <= x2; x++) {
+				for (int z = z1; z <= z2; z++) {
+					if (chunks.containsKey(ChunkPos.toLong(x, z))) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		
+		private void removeExpired(long time) {
+			if (isEmpty() || (time - lastCleanup < EXPIRE_TICKS && time >= lastCleanup)) {
+				return;
+			}
+			lastCleanup = time;
+			removeExpired(power, time);
+			removeExpired(particles, time);
+		}
+		
+		private void removeExpired(Long2ObjectMap<Entry> map, long time) {
+			ObjectIterator<Long2ObjectMap.Entry<Entry>> iterator = map.long2ObjectEntrySet().iterator();
+			while (iterator.hasNext()) {
+				Long2ObjectMap.Entry<Entry> entry = iterator.next();
+				if (entry.getValue().isExpired(time)) {
+					iterator.remove();
+					onRemoved(entry.getLongKey());
+				}
+			}
+		}
+		
+		private void clear() {
+			power.clear();
+			particles.clear();
+			chunks.clear();
+		}
+		
+		private static long getChunkKey(long pos) {
+			return ChunkPos.toLong(BlockPos.unpackLongX(pos) >> 4, BlockPos.unpackLongZ(pos) >> 4);
+		}
+	}
+	
+	private static final class Entry {
+		final long value;
+		final long time;
+		
+		Entry(long value, long time) {
+			this.value = value;
+			this.time = time;
+		}
+		
+		boolean isExpired(long time) {
+			return time - this.time >= EXPIRE_TICKS || time < this.time;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package ru.betterend.util;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.ChorusFlowerBlock;
+import net.minecraft.block.ChorusPlantBlock;
+import net.minecraft.block.ConnectingBlock;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.WorldAccess;
+
+/**
+ * Chorus plant generation with the whole plant collected in memory first. Shape is the same as in
+ * {@link ChorusFlowerBlock#generate(WorldAccess, BlockPos, Random, int)} for the same random,
+ * but each world position is read only once and plant blocks are written once with final connections.
+ */
+public class ChorusHelper {
+	/**
+	 * Generate chorus plant, bottom block gets roots.
+	 * @param world - {@link WorldAccess} to place plant in
+	 * @param pos - {@link BlockPos} of plant bottom
+	 * @param random - {@link Random}
+	 * @param size - max horizontal distance of branches from bottom
+	 */
+	public static void generate(WorldAccess world, BlockPos pos, Random random, int size) {
+		PlantBuffer buffer = new PlantBuffer(world);
+		buffer.set(pos, Blocks.CHORUS_PLANT.getDefaultState());
+		generate(buffer, pos, random, pos, size, 0);
+		
+		ChorusPlantBlock plant = (ChorusPlantBlock) Blocks.CHORUS_PLANT;
+		for (BlockPos placed: buffer.placed) {
+			BlockState state = buffer.getBlockState(placed);
+			if (state.isOf(Blocks.CHORUS_PLANT)) {
+				state = plant.withConnectionProperties(buffer, placed);
+				if (placed.equals(pos)) {
+					state = state.with(BlocksHelper.ROOTS, true).with(ConnectingBlock.DOWN, true);
+				}
+			}
+			BlocksHelper.setWithoutUpdate(world, placed, state);
+		}
+	}
+	
+	private static void generate(PlantBuffer buffer, BlockPos pos, Random random, BlockPos rootPos, int size, int layer) {
+		BlockState plant = Blocks.CHORUS_PLANT.getDefaultState();
+		int height = random.nextInt(4) + 1;
+		if (layer == 0) {
+			height++;
+		}
+		
+		for (int i = 0; i < height; i++) {
+			BlockPos up = pos.up(i + 1);
+			if (!buffer.isSurroundedByAir(up, null)) {
+				return;
+			}
+			buffer.set(up, plant);
+		}
+		
+		boolean hasBranches = false;
+		if (layer < 4) {
+			int count = random.nextInt(4);
+			if (layer == 0) {
+				count++;
+			}
+			
+			for (int i = 0; i < count; i++) {
+				Direction dir = Direction.Type.HORIZONTAL.random(random);
+				BlockPos branch = pos.up(height).offset(dir);
+				if (Math.abs(branch.getX() - rootPos.getX()) < size && Math.abs(branch.getZ() - rootPos.getZ()) < size && buffer.isAir(branch) && buffer.isAir(branch.down()) && buffer.isSurroundedByAir(branch, dir.getOpposite())) {
+					hasBranches = true;
+					buffer.set(branch, plant);
+					generate(buffer, branch, random, rootPos, size, layer + 1);
+				}
+			}
+		}
+		
+		if (!hasBranches) {
+			buffer.set(pos.up(height), Blocks.CHORUS_FLOWER.getDefaultState().with(ChorusFlowerBlock.AGE, 5));
+		}
+	}
+	
+	/**
+	 * World blocks with generated plant on top of them, world states are cached on first read.
+	 */
+	private static final class PlantBuffer implements BlockView {
+		final WorldAccess world;
+		final Map<BlockPos, BlockState> states = Maps.newHashMap();
+		final Set<BlockPos> placed = Sets.newLinkedHashSet();
+		
+		PlantBuffer(WorldAccess world) {
+			this.world = world;
+		}
+		
+		void set(BlockPos pos, BlockState state) {
+			pos = pos.toImmutable();
+			states.put(pos, state);
+			placed.add(pos);
+		}
+		
+		boolean isAir(BlockPos pos) {
+			return getBlockState(pos).isAir();
+		}
+		
+		boolean isSurroundedByAir(BlockPos pos, @Nullable Direction except) {
+			for (Direction dir: BlocksHelper.HORIZONTAL) {
+				if (dir != except && !isAir(pos.offset(dir))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		@Override
+		public BlockState getBlockState(BlockPos pos) {
+			BlockState state = states.get(pos);
+			if (state == null) {
+				pos = pos.toImmutable();
+				state = world.getBlockState(pos);
+				states.put(pos, state);
+			}
+			return state;
+		}
+		
+		@Override
+		public FluidState getFluidState(BlockPos pos) {
+			return getBlockState(pos).getFluidState();
+		}
+		
+		@Override
+		public BlockEntity getBlockEntity(BlockPos pos) {
+			return placed.contains(pos) ? null : world.getBlockEntity(pos);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package ru.betterend.util;
+
+/**
+ * Fog densities in four corners of the cell with camera. Densities are sampled only when camera moves
+ * to another cell, corners shared with previous cell are kept, inside the cell density is interpolated bilinearly.
+ * Points without density (non-End biomes) are stored as NaN and ignored in interpolation.
+ */
+public class FogDensityGrid {
+	private static final int SIZE = 2;
+	
+	private final float[] densities = new float[SIZE * SIZE];
+	private final float[] buffer = new float[SIZE * SIZE];
+	private final int cellShift;
+	private final float cellSize;
+	private boolean valid;
+	private int originX;
+	private int originZ;
+	
+	@FunctionalInterface
+	public static interface DensitySampler {
+		/**
+		 * Get fog density at block position.
+		 * @return density or {@link Float#NaN} if there is no custom density at this position
+		 */
+		public abstract float getDensity(int x, int z);
+	}
+	
+	/**
+	 * @param cellShift - cell size as power of two, 3 makes 8x8 blocks cells
+	 */
+	public FogDensityGrid(int cellShift) {
+		this.cellShift = cellShift;
+		this.cellSize = 1 << cellShift;
+	}
+	
+	public void invalidate() {
+		valid = false;
+	}
+	
+	/**
+	 * Get interpolated fog density at position, sampler is called only for new grid points.
+	 * @return density or {@link Float#NaN} if all cell corners have no density
+	 */
+	public float getDensity(double x, double z, DensitySampler sampler) {
+		int blockX = MHelper.floor(x);
+		int blockZ = MHelper.floor(z);
+		int cellX = blockX >> cellShift;
+		int cellZ = blockZ >> cellShift;
+		update(cellX, cellZ, sampler);
+		
+		float dx = (float) (x - (cellX << cellShift)) / cellSize;
+		float dz = (float) (z - (cellZ << cellShift)) / cellSize;
+		return interpolate(
+			densities[getIndex(0, 0)],
+			densities[getIndex(1, 0)],
+			densities[getIndex(0, 1)],
+			densities[getIndex(1, 1)],
+			dx, dz
+		);
+	}
+	
+	/**
+	 * Bilinear interpolation that skips NaN values, weights of remaining values are normalized.
+	 */
+	public static float interpolate(float a, float b, float c, float d, float dx, float dz) {
+		float wa = (1 - dx) * (1 - dz);
+		float wb = dx * (1 - dz);
+		float wc = (1 - dx) * dz;
+		float wd = dx * dz;
+		float sum = 0;
+		float weight = 0;
+		if (!Float.isNaN(a)) {
+			sum += a * wa;
+			weight += wa;
+		}
+		if (!Float.isNaN(b)) {
+			sum += b * wb;
+			weight += wb;
+		}
+		if (!Float.isNaN(c)) {
+			sum += c * wc;
+			weight += wc;
+		}
+		if (!Float.isNaN(d)) {
+			sum += d * wd;
+			weight += wd;
+		}
+		if (weight > 0) {
+			return sum / weight;
+		}
+		
+		// Position is exactly on the edge of valid corners, use any valid value
+		if (!Float.isNaN(a)) return a;
+		if (!Float.isNaN(b)) return b;
+		if (!Float.isNaN(c)) return c;
+		return d;
+	}
+	
+	/**
+	 * Move grid to new origin, values that are still inside the grid are kept.
+	 */
+	private void update(int x, int z, DensitySampler sampler) {
+		if (valid && x == originX && z == originZ) {
+			return;
+		}
+		
+		int offsetX = x - originX;
+		int offsetZ = z - originZ;
+		for (int i = 0; i < SIZE; i++) {
+			for (int j = 0; j < SIZE; j++) {
+				int oldX = i + offsetX;
+				int oldZ = j + offsetZ;
+				if (valid && oldX >= 0 && oldX < SIZE && oldZ >= 0 && oldZ < SIZE) {
+					buffer[getIndex(i, j)] = densities[getIndex(oldX, oldZ)];
+				}
+				else {
+					buffer[getIndex(i, j)] = sampler.getDensity((x + i) << cellShift, (z + j) << cellShift);
+				}
+			}
+		}
+		
+		System.arraycopy(buffer, 0, densities, 0, buffer.length);
+		originX = x;
+		originZ = z;
+		valid = true;
+	}
+	
+	private int getIndex(int x, int z) {
+		return x * SIZE + z;
+	}
+}
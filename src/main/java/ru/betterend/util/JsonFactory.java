@@ -7,7 +7,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import com.google.common.collect.Maps;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
@@ -19,6 +22,36 @@ import ru.betterend.BetterEnd;
 public class JsonFactory {
 	
 	public final static Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final Map<String, CompletableFuture<JsonObject>> PRELOADED = Maps.newConcurrentMap();
+	
+	/**
+	 * Start reading json resource in background, result will be used by {@link #getResourceJson(String)}.
+	 * @param path - path of resource in mod jar
+	 * @return {@link CompletableFuture} with json or null if resource is missing
+	 */
+	public static CompletableFuture<JsonObject> preloadResourceJson(String path) {
+		return PRELOADED.computeIfAbsent(path, (key) -> StartupHelper.supplyAsync(() -> readResourceJson(key)));
+	}
+	
+	/**
+	 * Get json resource, preloaded result is used (once) if it exists.
+	 * @param path - path of resource in mod jar
+	 * @return {@link JsonObject} or null if resource is missing
+	 */
+	public static JsonObject getResourceJson(String path) {
+		CompletableFuture<JsonObject> future = PRELOADED.remove(path);
+		return future == null ? readResourceJson(path) : future.join();
+	}
+	
+	private static JsonObject readResourceJson(String path) {
+		try (InputStream is = JsonFactory.class.getResourceAsStream(path)) {
+			return is == null ? null : getJsonObject(is);
+		}
+		catch (IOException ex) {
+			BetterEnd.LOGGER.catching(ex);
+			return null;
+		}
+	}
 	
 	public static JsonObject getJsonObject(String path) throws IOException {
 		try (InputStream is = JsonFactory.class.getResourceAsStream(path)) {
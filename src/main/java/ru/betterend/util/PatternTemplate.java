@@ -0,0 +1,96 @@
+package ru.betterend.util;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+
+/**
+ * Pattern file split into literal parts and placeholders (%name%). Pattern resources are read and split once,
+ * cache is cleared after each model loading since resource packs can replace patterns.
+ * Result of {@link #apply(Map)} is the same as replacing all placeholders with {@link String#replace}.
+ */
+public class PatternTemplate {
+	private static final Pattern PLACEHOLDER = Pattern.compile("%[a-z_]+%");
+	private static final Map<Identifier, Optional<PatternTemplate>> CACHE = Maps.newConcurrentMap();
+	
+	private final String[] literals;
+	private final String[] placeholders;
+	private final int length;
+	
+	private PatternTemplate(String pattern) {
+		List<String> literals = Lists.newArrayList();
+		List<String> placeholders = Lists.newArrayList();
+		Matcher matcher = PLACEHOLDER.matcher(pattern);
+		int start = 0;
+		while (matcher.find()) {
+			literals.add(pattern.substring(start, matcher.start()));
+			placeholders.add(matcher.group());
+			start = matcher.end();
+		}
+		literals.add(pattern.substring(start));
+		this.literals = literals.toArray(new String[literals.size()]);
+		this.placeholders = placeholders.toArray(new String[placeholders.size()]);
+		this.length = pattern.length();
+	}
+	
+	/**
+	 * Get compiled pattern from client resources.
+	 * @param patternId - {@link Identifier} of pattern file
+	 * @return {@link PatternTemplate} or null if pattern can't be read
+	 */
+	public static PatternTemplate get(Identifier patternId) {
+		return CACHE.computeIfAbsent(patternId, (id) -> Optional.ofNullable(read(id))).orElse(null);
+	}
+	
+	public static void clearCache() {
+		CACHE.clear();
+	}
+	
+	/**
+	 * Compile pattern text, lines are joined without separators as in the original pattern loading.
+	 */
+	public static PatternTemplate compile(BufferedReader reader) {
+		return new PatternTemplate(reader.lines().collect(Collectors.joining()));
+	}
+	
+	private static PatternTemplate read(Identifier patternId) {
+		ResourceManager resourceManager = MinecraftClient.getInstance().getResourceManager();
+		try (Resource resource = resourceManager.getResource(patternId); InputStream input = resource.getInputStream()) {
+			return compile(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+		}
+		catch (Exception ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Fill placeholders, placeholders without values are kept as is.
+	 * @param values - map of placeholders (with % symbols) to values
+	 * @return resulting json
+	 */
+	public String apply(Map<String, String> values) {
+		StringBuilder builder = new StringBuilder(length + 64);
+		for (int i = 0; i < placeholders.length; i++) {
+			builder.append(literals[i]);
+			String value = values.get(placeholders[i]);
+			builder.append(value == null ? placeholders[i] : value);
+		}
+		builder.append(literals[placeholders.length]);
+		return builder.toString();
+	}
+}
@@ -0,0 +1,62 @@
+package ru.betterend.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.minecraft.util.Util;
+import ru.betterend.BetterEnd;
+
+/**
+ * Mod initialization helper: timing of initialization phases and background tasks.
+ * Background tasks should only read resources and parse them, all registry writes stay on main thread.
+ */
+public class StartupHelper {
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+		Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)),
+		new ThreadFactoryBuilder().setNameFormat("BetterEnd Startup #%d").setDaemon(true).build()
+	);
+	private static long totalNanos;
+	
+	/**
+	 * Run initialization phase on current thread and log its time.
+	 * @param name - name of phase for log
+	 * @param phase - {@link Runnable} phase
+	 */
+	public static void phase(String name, Runnable phase) {
+		long start = Util.getMeasuringTimeNano();
+		phase.run();
+		long time = Util.getMeasuringTimeNano() - start;
+		totalNanos += time;
+		BetterEnd.LOGGER.info("Initialized {} in {} ms", name, time / 1000000);
+	}
+	
+	/**
+	 * Run task on startup executor, after {@link #finish()} task is executed on current thread.
+	 * @param task - {@link Supplier} without registry access
+	 * @return {@link CompletableFuture} with task result
+	 */
+	public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+		if (!EXECUTOR.isShutdown()) {
+			try {
+				return CompletableFuture.supplyAsync(task, EXECUTOR);
+			}
+			catch (RejectedExecutionException e) {
+				// Executor was stopped by other thread, run task here
+			}
+		}
+		return CompletableFuture.completedFuture(task.get());
+	}
+	
+	/**
+	 * Log total time of all phases and stop executor, already submitted tasks are still completed.
+	 */
+	public static void finish() {
+		EXECUTOR.shutdown();
+		BetterEnd.LOGGER.info("Initialization took {} ms", totalNanos / 1000000);
+	}
+}
@@ -1,8 +1,22 @@
 package ru.betterend.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -20,16 +34,85 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.BlockPos.Mutable;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.StructureWorldAccess;
+import ru.betterend.BetterEnd;
+import ru.betterend.blocks.BlockTerrain;
 import ru.betterend.registry.EndBlocks;
 import ru.betterend.registry.EndTags;
 
 public class StructureHelper {
 	private static final Direction[] DIR = BlocksHelper.makeHorizontal();
+	private static final BlockState AIR = Blocks.AIR.getDefaultState();
+	private static final Map<Identifier, CompletableFuture<StructureData>> STRUCTURE_TAGS = Maps.newConcurrentMap();
+	private static final Map<Identifier, Structure> STRUCTURES = Maps.newConcurrentMap();
+	private static final Map<HashCode, Structure> STRUCTURE_CONTENTS = Maps.newConcurrentMap();
+	private static final ExecutorService LOADER = Executors.newFixedThreadPool(
+		Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)),
+		new ThreadFactoryBuilder().setNameFormat("BetterEnd Structure Loader #%d").setDaemon(true).build()
+	);
+	
+	/**
+	 * Starts reading and decompressing structure file in background, result will be used by {@link #getStructure(Identifier)}.
+	 * Repeated calls with same {@link Identifier} are ignored.
+	 * @param resource - {@link Identifier} of structure, same format as in {@link #readStructure(Identifier)}
+	 */
+	public static void preloadStructure(Identifier resource) {
+		if (!STRUCTURES.containsKey(resource)) {
+			STRUCTURE_TAGS.computeIfAbsent(resource, (id) -> CompletableFuture.supplyAsync(() -> readStructureTag(id), LOADER));
+		}
+	}
+	
+	/**
+	 * Get shared cached {@link Structure}, it will be loaded on first call if it was not preloaded.
+	 * Block palette is resolved here (not in loader threads) since registries can still be modified during preloading.
+	 * Files with identical content share one {@link Structure} instance even if they have different IDs.
+	 * @param resource - {@link Identifier} of structure
+	 * @return {@link Structure} or null if it can't be loaded
+	 */
+	public static Structure getStructure(Identifier resource) {
+		Structure structure = STRUCTURES.get(resource);
+		if (structure != null) {
+			return structure;
+		}
+		return STRUCTURES.computeIfAbsent(resource, (id) -> {
+			CompletableFuture<StructureData> future = STRUCTURE_TAGS.remove(id);
+			StructureData data = future == null ? readStructureTag(id) : future.join();
+			if (data == null) {
+				return null;
+			}
+			return STRUCTURE_CONTENTS.computeIfAbsent(data.hash, (hash) -> {
+				Structure template = new Structure();
+				template.fromTag(data.tag);
+				return template;
+			});
+		});
+	}
 	
 	public static Structure readStructure(Identifier resource) {
-		String ns = resource.getNamespace();
-		String nm = resource.getPath();
-		return readStructure("/data/" + ns + "/structures/" + nm + ".nbt");
+		return readStructure(getStructurePath(resource));
+	}
+	
+	private static String getStructurePath(Identifier resource) {
+		return "/data/" + resource.getNamespace() + "/structures/" + resource.getPath() + ".nbt";
+	}
+	
+	/**
+	 * Read structure file and decompress it, hash of file content is used to share identical structures.
+	 */
+	private static StructureData readStructureTag(Identifier resource) {
+		String path = getStructurePath(resource);
+		try (InputStream inputstream = StructureHelper.class.getResourceAsStream(path)) {
+			if (inputstream == null) {
+				BetterEnd.LOGGER.error("Missing structure file " + path);
+				return null;
+			}
+			byte[] content = ByteStreams.toByteArray(inputstream);
+			HashCode hash = Hashing.sha256().hashBytes(content);
+			return new StructureData(hash, NbtIo.readCompressed(new ByteArrayInputStream(content)));
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
 	}
 	
 	public static Structure readStructure(String path) {
@@ -82,7 +165,12 @@ public class StructureHelper {
 		return new BlockBox(min.add(pos), max.add(pos));
 	}
 	
+	/**
+	 * Erode structure blocks inside bounds. Area is copied into local {@link RegionBuffer} once,
+	 * all iterations are processed in memory and only changed blocks are written back into the world.
+	 */
 	public static void erode(StructureWorldAccess world, BlockBox bounds, int iterations, Random random) {
+		RegionBuffer buffer = new RegionBuffer(world, bounds, 2);
 		Mutable mut = new Mutable();
 		boolean canDestruct = true;
 		for (int i = 0; i < iterations; i++) {
@@ -92,8 +180,8 @@ public class StructureHelper {
 					mut.setZ(z);
 					for (int y = bounds.maxY; y >= bounds.minY; y--) {
 						mut.setY(y);
-						BlockState state = world.getBlockState(mut);
-						if (canDestruct && state.isOf(EndBlocks.FLAVOLITE_RUNED_ETERNAL) && random.nextInt(8) == 0 && world.isAir(mut.down(2))) {
+						BlockState state = buffer.getBlockState(mut);
+						if (canDestruct && state.isOf(EndBlocks.FLAVOLITE_RUNED_ETERNAL) && random.nextInt(8) == 0 && buffer.isAir(mut.down(2))) {
 							int r = MHelper.randRange(1, 4, random);
 							int cx = mut.getX();
 							int cy = mut.getY();
@@ -116,8 +204,8 @@ public class StructureHelper {
 										int dz = pz - cz;
 										dz *= dz;
 										mut.setZ(pz);
-										if (dx + dy + dz <= r && world.getBlockState(mut).isOf(EndBlocks.FLAVOLITE_RUNED_ETERNAL)) {
-											BlocksHelper.setWithoutUpdate(world, mut, Blocks.AIR);
+										if (dx + dy + dz <= r && buffer.getBlockState(mut).isOf(EndBlocks.FLAVOLITE_RUNED_ETERNAL)) {
+											buffer.setBlockState(mut, AIR);
 										}
 									}
 								}
@@ -128,20 +216,20 @@ public class StructureHelper {
 							canDestruct = false;
 							continue;
 						}
-						else if (ignore(state)) {
+						else if (buffer.ignore(state)) {
 							continue;
 						}
 						if (!state.isAir() && random.nextBoolean()) {
 							shuffle(random);
 							for (Direction dir: DIR) {
-								if (world.isAir(mut.offset(dir)) && world.isAir(mut.down().offset(dir))) {
-									BlocksHelper.setWithoutUpdate(world, mut, Blocks.AIR);
+								if (buffer.isAir(mut.offset(dir)) && buffer.isAir(mut.down().offset(dir))) {
+									buffer.setBlockState(mut, AIR);
 									mut.move(dir).move(Direction.DOWN);
 									for (int py = mut.getY(); y >= bounds.minY - 10; y--) {
 										mut.setY(py - 1);
-										if (!world.isAir(mut)) {
+										if (!buffer.isAir(mut)) {
 											mut.setY(py);
-											BlocksHelper.setWithoutUpdate(world, mut, state);
+											buffer.setBlockState(mut, state);
 											break;
 										}
 									}
@@ -149,8 +237,8 @@ public class StructureHelper {
 							}
 							break;
 						}
-						else if (random.nextInt(8) == 0 && !world.getBlockState(mut.up()).isOf(EndBlocks.ETERNAL_PEDESTAL)) {
-							BlocksHelper.setWithoutUpdate(world, mut, Blocks.AIR);
+						else if (random.nextInt(8) == 0 && !buffer.getBlockState(mut.up()).isOf(EndBlocks.ETERNAL_PEDESTAL)) {
+							buffer.setBlockState(mut, AIR);
 						}
 					}
 				}
@@ -162,14 +250,14 @@ public class StructureHelper {
 				mut.setZ(z);
 				for (int y = bounds.maxY; y >= bounds.minY; y--) {
 					mut.setY(y);
-					BlockState state = world.getBlockState(mut);
-					if (!ignore(state) && world.isAir(mut.down())) {
-						BlocksHelper.setWithoutUpdate(world, mut, Blocks.AIR);
+					BlockState state = buffer.getBlockState(mut);
+					if (!buffer.ignore(state) && buffer.isAir(mut.down())) {
+						buffer.setBlockState(mut, AIR);
 						for (int py = mut.getY(); y >= bounds.minY - 10; y--) {
 							mut.setY(py - 1);
-							if (!world.isAir(mut)) {
+							if (!buffer.isAir(mut)) {
 								mut.setY(py);
-								BlocksHelper.setWithoutUpdate(world, mut, state);
+								buffer.setBlockState(mut, state);
 								break;
 							}
 						}
@@ -177,6 +265,7 @@ public class StructureHelper {
 				}
 			}
 		}
+		buffer.flush();
 	}
 	
 	private static boolean ignore(BlockState state) {
@@ -200,20 +289,148 @@ public class StructureHelper {
 	}
 	
 	public static void cover(StructureWorldAccess world, BlockBox bounds, Random random) {
+		RegionBuffer buffer = new RegionBuffer(world, bounds, 1);
+		List<BlockPos> covered = Lists.newArrayList();
 		Mutable mut = new Mutable();
 		for (int x = bounds.minX; x <= bounds.maxX; x++) {
 			mut.setX(x);
 			for (int z = bounds.minZ; z <= bounds.maxZ; z++) {
 				mut.setZ(z);
-				BlockState top = world.getBiome(mut).getGenerationSettings().getSurfaceConfig().getTopMaterial();
+				BlockState top = null;
 				for (int y = bounds.maxY; y >= bounds.minY; y--) {
 					mut.setY(y);
-					BlockState state = world.getBlockState(mut);
-					if (state.isIn(EndTags.END_GROUND) && !world.getBlockState(mut.up()).getMaterial().blocksLight()) {
-						BlocksHelper.setWithoutUpdate(world, mut, top);
+					BlockState state = buffer.getBlockState(mut);
+					if (state.isIn(EndTags.END_GROUND) && !buffer.getBlockState(mut.up()).getMaterial().blocksLight()) {
+						if (top == null) {
+							top = world.getBiome(mut).getGenerationSettings().getSurfaceConfig().getTopMaterial();
+						}
+						buffer.setBlockState(mut, top);
+						covered.add(mut.toImmutable());
 					}
 				}
 			}
 		}
+		buffer.flush();
+		for (BlockPos pos: covered) {
+			BlockTerrain.checkDecay(world, pos, world.getBlockState(pos));
+		}
+	}
+	
+	/**
+	 * Local copy of world area with palette-indexed states. Positions outside of copied area
+	 * are read from the world and stored separately, all changes are written back by {@link #flush()}.
+	 */
+	private static final class RegionBuffer {
+		private final List<BlockState> palette = Lists.newArrayList();
+		private final Map<BlockState, Integer> indexes = Maps.newHashMap();
+		private final Map<BlockState, Boolean> ignore = Maps.newIdentityHashMap();
+		private final Map<BlockPos, BlockState> outside = Maps.newHashMap();
+		private final StructureWorldAccess world;
+		private final short[] original;
+		private final short[] data;
+		private final BitSet changed;
+		private final int minX;
+		private final int minY;
+		private final int minZ;
+		private final int sizeX;
+		private final int sizeY;
+		private final int sizeZ;
+		
+		RegionBuffer(StructureWorldAccess world, BlockBox bounds, int margin) {
+			this.world = world;
+			minX = bounds.minX - margin;
+			minY = bounds.minY - margin;
+			minZ = bounds.minZ - margin;
+			sizeX = bounds.maxX - bounds.minX + 1 + margin * 2;
+			sizeY = bounds.maxY - bounds.minY + 1 + margin * 2;
+			sizeZ = bounds.maxZ - bounds.minZ + 1 + margin * 2;
+			data = new short[sizeX * sizeY * sizeZ];
+			changed = new BitSet(data.length);
+			
+			Mutable mut = new Mutable();
+			int index = 0;
+			for (int x = 0; x < sizeX; x++) {
+				for (int z = 0; z < sizeZ; z++) {
+					for (int y = 0; y < sizeY; y++) {
+						mut.set(minX + x, minY + y, minZ + z);
+						data[index++] = getIndex(world.getBlockState(mut));
+					}
+				}
+			}
+			original = data.clone();
+		}
+		
+		private short getIndex(BlockState state) {
+			Integer index = indexes.get(state);
+			if (index == null) {
+				index = palette.size();
+				palette.add(state);
+				indexes.put(state, index);
+			}
+			return index.shortValue();
+		}
+		
+		private int getOffset(BlockPos pos) {
+			int x = pos.getX() - minX;
+			int y = pos.getY() - minY;
+			int z = pos.getZ() - minZ;
+			if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) {
+				return -1;
+			}
+			return (x * sizeZ + z) * sizeY + y;
+		}
+		
+		BlockState getBlockState(BlockPos pos) {
+			int offset = getOffset(pos);
+			if (offset < 0) {
+				BlockState state = outside.get(pos);
+				return state == null ? world.getBlockState(pos) : state;
+			}
+			return palette.get(data[offset]);
+		}
+		
+		boolean isAir(BlockPos pos) {
+			return getBlockState(pos).isAir();
+		}
+		
+		void setBlockState(BlockPos pos, BlockState state) {
+			int offset = getOffset(pos);
+			if (offset < 0) {
+				outside.put(pos.toImmutable(), state);
+			}
+			else {
+				data[offset] = getIndex(state);
+				changed.set(offset);
+			}
+		}
+		
+		boolean ignore(BlockState state) {
+			return ignore.computeIfAbsent(state, StructureHelper::ignore);
+		}
+		
+		void flush() {
+			Mutable mut = new Mutable();
+			for (int offset = changed.nextSetBit(0); offset >= 0; offset = changed.nextSetBit(offset + 1)) {
+				if (data[offset] != original[offset]) {
+					int y = offset % sizeY;
+					int xz = offset / sizeY;
+					mut.set(minX + xz / sizeZ, minY + y, minZ + xz % sizeZ);
+					BlocksHelper.setWithoutUpdate(world, mut, palette.get(data[offset]));
+				}
+			}
+			outside.forEach((pos, state) -> {
+				BlocksHelper.setWithoutUpdate(world, pos, state);
+			});
+		}
+	}
+	
+	private static final class StructureData {
+		final HashCode hash;
+		final CompoundTag tag;
+		
+		StructureData(HashCode hash, CompoundTag tag) {
+			this.hash = hash;
+			this.tag = tag;
+		}
 	}
 }
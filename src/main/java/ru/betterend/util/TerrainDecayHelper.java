@@ -0,0 +1,134 @@
+package ru.betterend.util;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import ru.betterend.blocks.BlockTerrain;
+
+/**
+ * One-off decay check of terrain blocks. Terrain doesn't tick randomly, so blocks that were covered without updates
+ * (old saves, features without post-pass) are found when chunk is loaded for the first time. Chunk scan only reads
+ * chunk data, positions of covered terrain are checked on next server ticks in limited batches.
+ * Checked chunks are stored in the world, so each chunk is scanned once.
+ */
+public class TerrainDecayHelper {
+	private static final int CHECKS_PER_TICK = 1024;
+	private static final Map<ServerWorld, LongArrayFIFOQueue> QUEUES = Maps.newHashMap();
+	
+	public static void onChunkLoad(ServerWorld world, WorldChunk chunk) {
+		ChunkPos chunkPos = chunk.getPos();
+		if (!CheckedChunks.get(world).add(chunkPos)) {
+			return;
+		}
+		
+		int startX = chunkPos.getStartX();
+		int startZ = chunkPos.getStartZ();
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		LongArrayFIFOQueue queue = null;
+		for (ChunkSection section: chunk.getSectionArray()) {
+			if (ChunkSection.isEmpty(section) || !section.hasAny(TerrainDecayHelper::isTerrain)) {
+				continue;
+			}
+			int bottom = section.getYOffset();
+			for (int y = 0; y < 16; y++) {
+				for (int x = 0; x < 16; x++) {
+					for (int z = 0; z < 16; z++) {
+						if (!isTerrain(section.getBlockState(x, y, z))) {
+							continue;
+						}
+						pos.set(startX + x, bottom + y + 1, startZ + z);
+						if (!chunk.getBlockState(pos).isAir()) {
+							if (queue == null) {
+								queue = QUEUES.computeIfAbsent(world, (key) -> new LongArrayFIFOQueue());
+							}
+							queue.enqueue(BlockPos.asLong(startX + x, bottom + y, startZ + z));
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	public static void onServerTick() {
+		int budget = CHECKS_PER_TICK;
+		Iterator<Map.Entry<ServerWorld, LongArrayFIFOQueue>> iterator = QUEUES.entrySet().iterator();
+		while (budget > 0 && iterator.hasNext()) {
+			Map.Entry<ServerWorld, LongArrayFIFOQueue> entry = iterator.next();
+			ServerWorld world = entry.getKey();
+			LongArrayFIFOQueue queue = entry.getValue();
+			while (budget > 0 && !queue.isEmpty()) {
+				BlockPos pos = BlockPos.fromLong(queue.dequeueLong());
+				if (world.getChunkManager().isChunkLoaded(pos.getX() >> 4, pos.getZ() >> 4)) {
+					BlockTerrain.checkDecay(world, pos, world.getBlockState(pos));
+					budget--;
+				}
+			}
+			if (queue.isEmpty()) {
+				iterator.remove();
+			}
+		}
+	}
+	
+	public static void onServerStopped() {
+		QUEUES.clear();
+	}
+	
+	private static boolean isTerrain(BlockState state) {
+		return state.getBlock() instanceof BlockTerrain;
+	}
+	
+	/**
+	 * Chunks of the world that were already scanned.
+	 */
+	public static class CheckedChunks extends PersistentState {
+		private static final String KEY = "betterend_terrain_decay";
+		
+		private final LongSet chunks = new LongOpenHashSet();
+		
+		public CheckedChunks() {
+			super(KEY);
+		}
+		
+		public static CheckedChunks get(ServerWorld world) {
+			return world.getPersistentStateManager().getOrCreate(CheckedChunks::new, KEY);
+		}
+		
+		/**
+		 * @return false if chunk was already checked
+		 */
+		public boolean add(ChunkPos pos) {
+			if (chunks.add(pos.toLong())) {
+				markDirty();
+				return true;
+			}
+			return false;
+		}
+		
+		@Override
+		public void fromTag(CompoundTag tag) {
+			chunks.clear();
+			for (long pos: tag.getLongArray("chunks")) {
+				chunks.add(pos);
+			}
+		}
+		
+		@Override
+		public CompoundTag toTag(CompoundTag tag) {
+			tag.putLongArray("chunks", chunks.toLongArray());
+			return tag;
+		}
+	}
+}
@@ -16,7 +16,10 @@ import net.minecraft.util.math.BlockPos.Mutable;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.ServerWorldAccess;
+import ru.betterend.jfr.JFR;
+import ru.betterend.jfr.SDFFillEvent;
 import ru.betterend.util.BlocksHelper;
+import ru.betterend.util.MHelper;
 import ru.betterend.world.structures.StructureWorld;
 
 public abstract class SDF {
@@ -101,7 +104,11 @@ public abstract class SDF {
 		}
 	}
 	
-	public void fillRecursive(ServerWorldAccess world, BlockPos start) {
+	/**
+	 * Fill SDF recursively from start position.
+	 * @return {@link Set} of positions that were set by this SDF including post-pass positions, can be used in {@link BlocksHelper#fixBlocks(net.minecraft.world.WorldAccess, java.util.Collection)}
+	 */
+	public Set<BlockPos> fillRecursive(ServerWorldAccess world, BlockPos start) {
 		Map<BlockPos, PosInfo> mapWorld = Maps.newHashMap();
 		Map<BlockPos, PosInfo> addInfo = Maps.newHashMap();
 		Set<BlockPos> blocks = Sets.newHashSet();
@@ -109,6 +116,12 @@ public abstract class SDF {
 		Set<BlockPos> add = Sets.newHashSet();
 		ends.add(new BlockPos(0, 0, 0));
 		boolean run = true;
+		int visited = 0;
+		
+		SDFFillEvent event = JFR.AVAILABLE ? new SDFFillEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
 		
 		Mutable bPos = new Mutable();
 		
@@ -117,6 +130,7 @@ public abstract class SDF {
 				for (Direction dir: Direction.values()) {
 					bPos.set(center).move(dir);
 					BlockPos wpos = bPos.add(start);
+					visited++;
 					
 					if (!blocks.contains(bPos) && canReplace.apply(world.getBlockState(wpos))) {
 						if (this.getDistance(bPos.getX(), bPos.getY(), bPos.getZ()) < 0) {
@@ -136,6 +150,7 @@ public abstract class SDF {
 			run &= !ends.isEmpty();
 		}
 		
+		Set<BlockPos> changed = Sets.newHashSet(mapWorld.keySet());
 		List<PosInfo> infos = new ArrayList<PosInfo>(mapWorld.values());
 		if (infos.size() > 0) {
 			Collections.sort(infos);
@@ -151,15 +166,31 @@ public abstract class SDF {
 				if (canReplace.apply(world.getBlockState(info.getPos()))) {
 					BlockState state = postProcess.apply(info);
 					BlocksHelper.setWithoutUpdate(world, info.getPos(), state);
+					changed.add(info.getPos());
 				}
 			});
 		}
+		
+		if (event != null && event.shouldCommit()) {
+			commitEvent(event, "fillRecursive", start, visited, mapWorld.size());
+		}
+		
+		return changed;
 	}
 	
-	public void fillArea(ServerWorldAccess world, BlockPos center, Box box) {
+	/**
+	 * Fill SDF in the box area.
+	 * @return {@link Set} of positions that were set by this SDF including post-pass positions, can be used in {@link BlocksHelper#fixBlocks(net.minecraft.world.WorldAccess, java.util.Collection)}
+	 */
+	public Set<BlockPos> fillArea(ServerWorldAccess world, BlockPos center, Box box) {
 		Map<BlockPos, PosInfo> mapWorld = Maps.newHashMap();
 		Map<BlockPos, PosInfo> addInfo = Maps.newHashMap();
 		
+		SDFFillEvent event = JFR.AVAILABLE ? new SDFFillEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+		
 		Mutable mut = new Mutable();
 		for (int y = (int) box.minY; y <= box.maxY; y++) {
 			mut.setY(y);
@@ -177,6 +208,7 @@ public abstract class SDF {
 			}
 		}
 		
+		Set<BlockPos> changed = Sets.newHashSet(mapWorld.keySet());
 		List<PosInfo> infos = new ArrayList<PosInfo>(mapWorld.values());
 		if (infos.size() > 0) {
 			Collections.sort(infos);
@@ -192,9 +224,17 @@ public abstract class SDF {
 				if (canReplace.apply(world.getBlockState(info.getPos()))) {
 					BlockState state = postProcess.apply(info);
 					BlocksHelper.setWithoutUpdate(world, info.getPos(), state);
+					changed.add(info.getPos());
 				}
 			});
 		}
+		
+		if (event != null && event.shouldCommit()) {
+			int visited = (MHelper.floor(box.maxX) - (int) box.minX + 1) * (MHelper.floor(box.maxY) - (int) box.minY + 1) * (MHelper.floor(box.maxZ) - (int) box.minZ + 1);
+			commitEvent(event, "fillArea", center, visited, mapWorld.size());
+		}
+		
+		return changed;
 	}
 	
 	public void fillRecursiveIgnore(ServerWorldAccess world, BlockPos start, Function<BlockState, Boolean> ignore) {
@@ -304,4 +344,15 @@ public abstract class SDF {
 			world.setBlock(info.getPos(), state);
 		});
 	}
+	
+	private void commitEvent(SDFFillEvent event, String method, BlockPos pos, int visited, int placed) {
+		event.shape = getClass().getSimpleName();
+		event.method = method;
+		event.x = pos.getX();
+		event.y = pos.getY();
+		event.z = pos.getZ();
+		event.visited = visited;
+		event.placed = placed;
+		event.commit();
+	}
 }
@@ -1,24 +1,29 @@
 package ru.betterend.world.biome;
 
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.Stream;
 
 import com.google.common.collect.Lists;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-import net.minecraft.structure.Structure;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.WorldAccess;
 import net.minecraft.world.biome.Biome;
+import ru.betterend.BetterEnd;
 import ru.betterend.util.JsonFactory;
 import ru.betterend.util.StructureHelper;
 import ru.betterend.world.features.EndFeature;
 import ru.betterend.world.features.ListFeature;
 import ru.betterend.world.features.ListFeature.StructureInfo;
 import ru.betterend.world.features.NBTStructureFeature.TerrainMerge;
+import ru.betterend.world.generator.BiomeChances;
 
 public class EndBiome {
 	protected List<EndBiome> subbiomes = Lists.newArrayList();
@@ -29,9 +34,8 @@ public class EndBiome {
 	protected int edgeSize;
 
 	protected EndBiome biomeParent;
-	protected float maxSubBiomeChance = 1;
-	protected final float genChanceUnmutable;
-	protected float genChance = 1;
+	protected final float genChance;
+	private volatile BiomeChances subBiomeChances = BiomeChances.EMPTY;
 
 	private final float fogDensity;
 	private EndFeature structuresFeature;
@@ -41,7 +45,7 @@ public class EndBiome {
 		biome = definition.build();
 		mcID = definition.getID();
 		fogDensity = definition.getFodDensity();
-		genChanceUnmutable = definition.getGenChance();
+		genChance = definition.getGenChance();
 		readStructureList();
 	}
 
@@ -49,7 +53,7 @@ public class EndBiome {
 		this.biome = biome;
 		this.mcID = id;
 		this.fogDensity = fogDensity;
-		this.genChanceUnmutable = genChance;
+		this.genChance = genChance;
 		readStructureList();
 	}
 
@@ -74,17 +78,21 @@ public class EndBiome {
 	}
 
 	public void addSubBiome(EndBiome biome) {
-		maxSubBiomeChance += biome.mutateGenChance(maxSubBiomeChance);
 		biome.biomeParent = this;
 		subbiomes.add(biome);
+		
+		// Parent keeps chance 1 and each sub-biome range starts at the current maximum, same as in older versions
+		float[] chances = new float[subbiomes.size()];
+		float maxChance = 1;
+		for (int i = 0; i < chances.length; i++) {
+			chances[i] = subbiomes.get(i).genChance + maxChance;
+			maxChance += chances[i];
+		}
+		subBiomeChances = BiomeChances.of(subbiomes, chances, maxChance);
 	}
 
 	public EndBiome getSubBiome(Random random) {
-		float chance = random.nextFloat() * maxSubBiomeChance;
-		for (EndBiome biome : subbiomes)
-			if (biome.canGenerate(chance))
-				return biome;
-		return this;
+		return subBiomeChances.get(random, this);
 	}
 
 	public EndBiome getParentBiome() {
@@ -103,13 +111,7 @@ public class EndBiome {
 		return biome == this || (biome.hasParentBiome() && biome.getParentBiome() == this);
 	}
 
-	public boolean canGenerate(float chance) {
-		return chance <= this.genChance;
-	}
-
-	public float mutateGenChance(float chance) {
-		genChance = genChanceUnmutable;
-		genChance += chance;
+	public float getGenChance() {
 		return genChance;
 	}
 
@@ -134,19 +136,18 @@ public class EndBiome {
 		String ns = mcID.getNamespace();
 		String nm = mcID.getPath();
 
-		String path = "/data/" + ns + "/structures/biome/" + nm + "/";
-		InputStream inputstream = StructureHelper.class.getResourceAsStream(path + "structures.json");
-		if (inputstream != null) {
-			JsonObject obj = JsonFactory.getJsonObject(inputstream);
+		String folder = getStructureFolder(mcID);
+		JsonObject obj = JsonFactory.getResourceJson(getStructureListPath(mcID));
+		if (obj != null) {
 			JsonArray enties = obj.getAsJsonArray("structures");
 			if (enties != null) {
 				List<StructureInfo> list = Lists.newArrayList();
 				enties.forEach((entry) -> {
 					JsonObject e = entry.getAsJsonObject();
-					Structure structure = StructureHelper.readStructure(path + e.get("nbt").getAsString() + ".nbt");
+					Identifier structureID = new Identifier(ns, folder + e.get("nbt").getAsString());
 					TerrainMerge terrainMerge = TerrainMerge.getFromString(e.get("terrainMerge").getAsString());
 					int offsetY = e.get("offsetY").getAsInt();
-					list.add(new StructureInfo(structure, offsetY, terrainMerge));
+					list.add(new StructureInfo(structureID, offsetY, terrainMerge));
 				});
 				if (!list.isEmpty()) {
 					structuresFeature = EndFeature.makeChansedFeature(nm + "_structures", new ListFeature(list), 10);
@@ -155,6 +156,59 @@ public class EndBiome {
 		}
 	}
 	
+	private static String getStructureFolder(Identifier biomeID) {
+		return "biome/" + biomeID.getPath() + "/";
+	}
+	
+	private static String getStructureListPath(Identifier biomeID) {
+		return "/data/" + biomeID.getNamespace() + "/structures/" + getStructureFolder(biomeID) + "structures.json";
+	}
+	
+	public static String getPropertiesPath(String namespace) {
+		return "/data/" + namespace + "/end_biome_properties.json";
+	}
+	
+	/**
+	 * Start reading biome properties and structure lists of all biomes of the mod in background,
+	 * structures from the lists are preloaded too. Should be called on main thread before biomes are created,
+	 * so preloaded resources are registered before they are requested.
+	 * @param modID - ID of the mod with biomes
+	 */
+	public static void preloadResources(String modID) {
+		JsonFactory.preloadResourceJson(getPropertiesPath(modID));
+		FabricLoader.getInstance().getModContainer(modID).ifPresent((mod) -> {
+			Path folder = mod.getPath("data/" + modID + "/structures/biome");
+			if (!Files.isDirectory(folder)) {
+				return;
+			}
+			try (Stream<Path> biomes = Files.list(folder)) {
+				biomes.filter(Files::isDirectory).forEach((biome) -> {
+					String name = biome.getFileName().toString();
+					if (name.endsWith("/")) {
+						name = name.substring(0, name.length() - 1);
+					}
+					preloadStructureList(new Identifier(modID, name));
+				});
+			}
+			catch (IOException e) {
+				BetterEnd.LOGGER.warning("Unable to list biome structures of {}", modID, e);
+			}
+		});
+	}
+	
+	private static void preloadStructureList(Identifier biomeID) {
+		String folder = getStructureFolder(biomeID);
+		JsonFactory.preloadResourceJson(getStructureListPath(biomeID)).thenAccept((obj) -> {
+			JsonArray enties = obj == null ? null : obj.getAsJsonArray("structures");
+			if (enties != null) {
+				enties.forEach((entry) -> {
+					String nbt = entry.getAsJsonObject().get("nbt").getAsString();
+					StructureHelper.preloadStructure(new Identifier(biomeID.getNamespace(), folder + nbt));
+				});
+			}
+		});
+	}
+	
 	public EndFeature getStructuresFeature() {
 		return structuresFeature;
 	}
@@ -8,8 +8,8 @@ import net.minecraft.world.Heightmap;
 import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
 import net.minecraft.world.gen.feature.DefaultFeatureConfig;
-import ru.betterend.util.BlocksHelper;
 import ru.betterend.util.MHelper;
+import ru.betterend.world.generator.SurfaceIndex;
 
 public abstract class FullHeightScatterFeature extends DefaultFeature {
 	private static final Mutable POS = new Mutable();
@@ -25,11 +25,11 @@ public abstract class FullHeightScatterFeature extends DefaultFeature {
 	
 	@Override
 	public boolean generate(StructureWorldAccess world, ChunkGenerator chunkGenerator, Random random, BlockPos center, DefaultFeatureConfig featureConfig) {
+		SurfaceIndex index = SurfaceIndex.get(world);
 		int maxY = world.getTopY(Heightmap.Type.WORLD_SURFACE_WG, center.getX(), center.getZ());
-		int minY = BlocksHelper.upRay(world, new BlockPos(center.getX(), 0, center.getZ()), maxY);
+		int minY = index.upRay(new BlockPos(center.getX(), 0, center.getZ()), maxY);
 		for (int y = maxY; y > minY; y--) {
-			POS.set(center.getX(), y, center.getZ());
-			if (world.getBlockState(POS).isAir() && !world.getBlockState(POS.down()).isAir()) {
+			if (index.isFloor(center.getX(), y, center.getZ())) {
 				float r = MHelper.randRange(radius * 0.5F, radius, random);
 				int count = MHelper.floor(r * r * MHelper.randRange(1.5F, 3F, random));
 				for (int i = 0; i < count; i++) {
@@ -39,7 +39,7 @@ public abstract class FullHeightScatterFeature extends DefaultFeature {
 					float z = pr * (float) Math.sin(theta);
 					
 					POS.set(center.getX() + x, y + 5, center.getZ() + z);
-					int down = BlocksHelper.downRay(world, POS, 16);
+					int down = index.downRay(POS, 16);
 					if (down > 10) continue;
 					POS.setY(POS.getY() - down);
 					
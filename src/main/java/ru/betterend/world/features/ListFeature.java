@@ -6,9 +6,11 @@ import java.util.Random;
 import net.minecraft.structure.Structure;
 import net.minecraft.util.BlockMirror;
 import net.minecraft.util.BlockRotation;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.StructureWorldAccess;
 import ru.betterend.registry.EndTags;
+import ru.betterend.util.StructureHelper;
 
 public class ListFeature extends NBTStructureFeature {
 	private final List<StructureInfo> list;
@@ -21,7 +23,7 @@ public class ListFeature extends NBTStructureFeature {
 	@Override
 	protected Structure getStructure(StructureWorldAccess world, BlockPos pos, Random random) {
 		selected = list.get(random.nextInt(list.size()));
-		return selected.structure;
+		return selected.getStructure();
 	}
 
 	@Override
@@ -53,13 +55,18 @@ public class ListFeature extends NBTStructureFeature {
 	
 	public static final class StructureInfo {
 		public final TerrainMerge terrainMerge;
-		public final Structure structure;
+		public final Identifier structureID;
 		public final int offsetY;
 		
-		public StructureInfo(Structure structure, int offsetY, TerrainMerge terrainMerge) {
+		public StructureInfo(Identifier structureID, int offsetY, TerrainMerge terrainMerge) {
 			this.terrainMerge = terrainMerge;
-			this.structure = structure;
+			this.structureID = structureID;
 			this.offsetY = offsetY;
+			StructureHelper.preloadStructure(structureID);
+		}
+		
+		public Structure getStructure() {
+			return StructureHelper.getStructure(structureID);
 		}
 	}
 }
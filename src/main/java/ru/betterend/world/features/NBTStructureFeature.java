@@ -1,13 +1,8 @@
 package ru.betterend.world.features;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Random;
 
 import net.minecraft.block.BlockState;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.NbtIo;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.structure.Structure;
 import net.minecraft.structure.StructurePlacementData;
 import net.minecraft.util.BlockMirror;
@@ -25,6 +20,7 @@ import net.minecraft.world.gen.surfacebuilder.SurfaceConfig;
 import ru.betterend.registry.EndBiomes;
 import ru.betterend.registry.EndTags;
 import ru.betterend.util.BlocksHelper;
+import ru.betterend.util.StructureHelper;
 import ru.betterend.world.processors.DestructionStructureProcessor;
 
 public abstract class NBTStructureFeature extends DefaultFeature {
@@ -167,27 +163,7 @@ public abstract class NBTStructureFeature extends DefaultFeature {
 	}
 	
 	protected static Structure readStructure(Identifier resource) {
-		String ns = resource.getNamespace();
-		String nm = resource.getPath();
-
-		try {
-			InputStream inputstream = MinecraftServer.class.getResourceAsStream("/data/" + ns + "/structures/" + nm + ".nbt");
-			return readStructureFromStream(inputstream);
-		}
-		catch (IOException e) {
-			e.printStackTrace();
-		}
-
-		return null;
-	}
-	
-	private static Structure readStructureFromStream(InputStream stream) throws IOException {
-		CompoundTag nbttagcompound = NbtIo.readCompressed(stream);
-
-		Structure template = new Structure();
-		template.fromTag(nbttagcompound);
-
-		return template;
+		return StructureHelper.getStructure(resource);
 	}
 	
 	public static enum TerrainMerge {
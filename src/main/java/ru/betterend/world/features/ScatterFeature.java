@@ -8,8 +8,8 @@ import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
 import net.minecraft.world.gen.feature.DefaultFeatureConfig;
 import ru.betterend.registry.EndTags;
-import ru.betterend.util.BlocksHelper;
 import ru.betterend.util.MHelper;
+import ru.betterend.world.generator.SurfaceIndex;
 
 public abstract class ScatterFeature extends DefaultFeature {
 	private static final Mutable POS = new Mutable();
@@ -38,7 +38,7 @@ public abstract class ScatterFeature extends DefaultFeature {
 	}
 	
 	protected boolean getGroundPlant(StructureWorldAccess world, Mutable pos) {
-		int down = BlocksHelper.downRay(world, pos, 16);
+		int down = SurfaceIndex.get(world).downRay(pos, 16);
 		if (down > Math.abs(getYOffset() * 2)) {
 			return false;
 		}
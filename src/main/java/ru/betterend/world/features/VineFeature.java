@@ -8,6 +8,7 @@ import net.minecraft.world.StructureWorldAccess;
 import ru.betterend.blocks.BlockProperties;
 import ru.betterend.blocks.BlockProperties.TripleShape;
 import ru.betterend.util.BlocksHelper;
+import ru.betterend.world.generator.SurfaceIndex;
 
 public class VineFeature extends InvertedScatterFeature {
 	private final Block vineBlock;
@@ -21,12 +22,12 @@ public class VineFeature extends InvertedScatterFeature {
 
 	@Override
 	public boolean canGenerate(StructureWorldAccess world, Random random, BlockPos center, BlockPos blockPos, float radius) {
-		return world.isAir(blockPos) && vineBlock.canPlaceAt(AIR, world, blockPos);
+		return SurfaceIndex.get(world).isAir(blockPos) && vineBlock.canPlaceAt(AIR, world, blockPos);
 	}
 
 	@Override
 	public void generate(StructureWorldAccess world, Random random, BlockPos blockPos) {
-		int h = BlocksHelper.downRay(world, blockPos, random.nextInt(maxLength));
+		int h = SurfaceIndex.get(world).downRay(blockPos, random.nextInt(maxLength));
 		BlocksHelper.setWithoutUpdate(world, blockPos, vineBlock.getDefaultState().with(BlockProperties.TRIPLE_SHAPE, TripleShape.TOP));
 		for (int i = 1; i < h; i++) {
 			BlocksHelper.setWithoutUpdate(world, blockPos.down(i), vineBlock.getDefaultState().with(BlockProperties.TRIPLE_SHAPE, TripleShape.MIDDLE));
@@ -11,6 +11,7 @@ import net.minecraft.world.gen.chunk.ChunkGenerator;
 import net.minecraft.world.gen.feature.DefaultFeatureConfig;
 import ru.betterend.util.BlocksHelper;
 import ru.betterend.util.MHelper;
+import ru.betterend.world.generator.SurfaceIndex;
 
 public abstract class WallScatterFeature extends DefaultFeature {
 	private static final Direction[] DIR = BlocksHelper.makeHorizontal();
@@ -26,8 +27,9 @@ public abstract class WallScatterFeature extends DefaultFeature {
 	
 	@Override
 	public boolean generate(StructureWorldAccess world, ChunkGenerator chunkGenerator, Random random, BlockPos center, DefaultFeatureConfig featureConfig) {
+		SurfaceIndex index = SurfaceIndex.get(world);
 		int maxY = world.getTopY(Heightmap.Type.WORLD_SURFACE, center.getX(), center.getZ());
-		int minY = BlocksHelper.upRay(world, new BlockPos(center.getX(), 0, center.getZ()), maxY);
+		int minY = index.upRay(new BlockPos(center.getX(), 0, center.getZ()), maxY);
 		if (maxY < 10 || maxY < minY) {
 			return false;
 		}
@@ -40,7 +42,7 @@ public abstract class WallScatterFeature extends DefaultFeature {
 				mut.setY(py + y);
 				for (int z = -radius; z <= radius; z++) {
 					mut.setZ(center.getZ() + z);
-					if (random.nextInt(4) == 0 && world.isAir(mut)) {
+					if (random.nextInt(4) == 0 && index.isAir(mut)) {
 						shuffle(random);
 						for (Direction dir: DIR) {
 							if (canGenerate(world, random, mut, dir)) {
@@ -1,6 +1,9 @@
 package ru.betterend.world.features.terrain;
 
 import java.util.Random;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -59,6 +62,7 @@ public class EndLakeFeature extends DefaultFeature {
 		int maskMinX = minX - 1;
 		int maskMinZ = minZ - 1;
 		
+		Set<BlockPos> changed = Sets.newHashSet();
 		boolean[][] mask = new boolean[maxX - minX + 3][maxZ - minZ + 3];
 		for (int x = minX; x <= maxX; x++) {
 			POS.setX(x);
@@ -110,17 +114,17 @@ public class EndLakeFeature extends DefaultFeature {
 							if (x2 + z2 <= r) {
 								state = world.getBlockState(POS);
 								if (state.isIn(EndTags.GEN_TERRAIN)) {
-									BlocksHelper.setWithoutUpdate(world, POS, AIR);
+									BlocksHelper.setWithoutUpdate(world, POS, AIR, changed);
 								}
 								pos = POS.down();
 								if (world.getBlockState(pos).isIn(EndTags.GEN_TERRAIN)) {
 									state = world.getBiome(pos).getGenerationSettings().getSurfaceConfig().getTopMaterial();
 									if (y > waterLevel + 1)
-										BlocksHelper.setWithoutUpdate(world, pos, state);
+										BlocksHelper.setWithoutUpdate(world, pos, state, changed);
 									else if (y > waterLevel)
-										BlocksHelper.setWithoutUpdate(world, pos, random.nextBoolean() ? state : EndBlocks.ENDSTONE_DUST.getDefaultState());
+										BlocksHelper.setWithoutUpdate(world, pos, random.nextBoolean() ? state : EndBlocks.ENDSTONE_DUST.getDefaultState(), changed);
 									else
-										BlocksHelper.setWithoutUpdate(world, pos, EndBlocks.ENDSTONE_DUST.getDefaultState());
+										BlocksHelper.setWithoutUpdate(world, pos, EndBlocks.ENDSTONE_DUST.getDefaultState(), changed);
 								}
 							}
 						}
@@ -158,18 +162,18 @@ public class EndLakeFeature extends DefaultFeature {
 							if (canReplace(state)) {
 								state = world.getBlockState(POS.up());
 								state = canReplace(state) ? (y < waterLevel ? WATER : AIR) : state;
-								BlocksHelper.setWithoutUpdate(world, POS, state);
+								BlocksHelper.setWithoutUpdate(world, POS, state, changed);
 								/*if (y == waterLevel - 1 && !state.getFluidState().isEmpty()) {
 									world.getFluidTickScheduler().schedule(POS, state.getFluidState().getFluid(), 0);
 								}*/
 							}
 							pos = POS.down();
 							if (world.getBlockState(pos).getBlock().isIn(EndTags.GEN_TERRAIN)) {
-								BlocksHelper.setWithoutUpdate(world, POS.down(), EndBlocks.ENDSTONE_DUST.getDefaultState());
+								BlocksHelper.setWithoutUpdate(world, POS.down(), EndBlocks.ENDSTONE_DUST.getDefaultState(), changed);
 							}
 							pos = POS.up();
 							while (canReplace(state = world.getBlockState(pos)) && !state.isAir() && state.getFluidState().isEmpty()) {
-								BlocksHelper.setWithoutUpdate(world, pos, pos.getY() < waterLevel ? WATER : AIR);
+								BlocksHelper.setWithoutUpdate(world, pos, pos.getY() < waterLevel ? WATER : AIR, changed);
 								/*if (y == waterLevel - 1) {
 									world.getFluidTickScheduler().schedule(POS, WATER.getFluidState().getFluid(), 0);
 								}*/
@@ -181,12 +185,12 @@ public class EndLakeFeature extends DefaultFeature {
 							//if (world.getBlockState(POS).getMaterial().isReplaceable()) {
 							if (world.isAir(POS.up())) {
 								state = world.getBiome(POS).getGenerationSettings().getSurfaceConfig().getTopMaterial();
-								BlocksHelper.setWithoutUpdate(world, POS, random.nextBoolean() ? state : EndBlocks.ENDSTONE_DUST.getDefaultState());
-								BlocksHelper.setWithoutUpdate(world, POS.down(), END_STONE);
+								BlocksHelper.setWithoutUpdate(world, POS, random.nextBoolean() ? state : EndBlocks.ENDSTONE_DUST.getDefaultState(), changed);
+								BlocksHelper.setWithoutUpdate(world, POS.down(), END_STONE, changed);
 							}
 							else {
-								BlocksHelper.setWithoutUpdate(world, POS, EndBlocks.ENDSTONE_DUST.getDefaultState());
-								BlocksHelper.setWithoutUpdate(world, POS.down(), END_STONE);
+								BlocksHelper.setWithoutUpdate(world, POS, EndBlocks.ENDSTONE_DUST.getDefaultState(), changed);
+								BlocksHelper.setWithoutUpdate(world, POS.down(), END_STONE, changed);
 							}
 							//}
 						}
@@ -195,7 +199,7 @@ public class EndLakeFeature extends DefaultFeature {
 			}
 		}
 		
-		BlocksHelper.fixBlocks(world, new BlockPos(minX - 2, waterLevel - 2, minZ - 2), new BlockPos(maxX + 2, blockPos.getY() + 20, maxZ + 2));
+		BlocksHelper.fixBlocks(world, changed);
 		
 		return true;
 	}
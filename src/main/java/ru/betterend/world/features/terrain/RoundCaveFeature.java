@@ -72,6 +72,7 @@ public class RoundCaveFeature extends DefaultFeature {
 		double nr = radius * 0.25;
 		
 		Set<BlockPos> bushes = Sets.newHashSet();
+		Set<BlockPos> changed = Sets.newHashSet();
 		BlockState terrain = EndBlocks.CAVE_MOSS.getDefaultState();
 		for (int x = x1; x <= x2; x++) {
 			int xsq = x - pos.getX();
@@ -92,30 +93,30 @@ public class RoundCaveFeature extends DefaultFeature {
 					if (dist < r * r) {
 						BlockState state = world.getBlockState(bpos);
 						if (isReplaceable(state)) {
-							BlocksHelper.setWithoutUpdate(world, bpos, CAVE_AIR);
+							BlocksHelper.setWithoutUpdate(world, bpos, CAVE_AIR, changed);
 							
 							while (state.getMaterial().equals(Material.LEAVES)) {
-								BlocksHelper.setWithoutUpdate(world, bpos, CAVE_AIR);
+								BlocksHelper.setWithoutUpdate(world, bpos, CAVE_AIR, changed);
 								bpos.setY(bpos.getY() + 1);
 								state = world.getBlockState(bpos);
 							}
 							
 							bpos.setY(y - 1);
 							while (state.getMaterial().equals(Material.LEAVES)) {
-								BlocksHelper.setWithoutUpdate(world, bpos, CAVE_AIR);
+								BlocksHelper.setWithoutUpdate(world, bpos, CAVE_AIR, changed);
 								bpos.setY(bpos.getY() - 1);
 								state = world.getBlockState(bpos);
 							}
 						}
 						bpos.setY(y - 1);
 						if (world.getBlockState(bpos).isIn(EndTags.GEN_TERRAIN)) {
-							BlocksHelper.setWithoutUpdate(world, bpos, terrain);
+							BlocksHelper.setWithoutUpdate(world, bpos, terrain, changed);
 						}
 					}
 					else if (dist < r2 * r2) {
 						BlockState state = world.getBlockState(bpos);
 						if (!state.getFluidState().isEmpty()) {
-							BlocksHelper.setWithoutUpdate(world, bpos, Blocks.END_STONE.getDefaultState());
+							BlocksHelper.setWithoutUpdate(world, bpos, Blocks.END_STONE.getDefaultState(), changed);
 						}
 						else if (world.getBlockState(bpos).isIn(EndTags.GEN_TERRAIN)) {
 							if (world.isAir(bpos.down())) {
@@ -137,7 +138,7 @@ public class RoundCaveFeature extends DefaultFeature {
 		}
 		bushes.forEach((cpos) -> {
 			if (random.nextInt(32) == 0) {
-				generateBush(world, random, cpos);
+				generateBush(world, random, cpos, changed);
 			}
 		});
 		
@@ -156,12 +157,12 @@ public class RoundCaveFeature extends DefaultFeature {
 							|| state.getMaterial().equals(Material.PLANT)
 							|| state.getMaterial().equals(Material.LEAVES);
 				});
-				prism.fillRecursive(world, pos);
-				BlocksHelper.setWithoutUpdate(world, pos, EndBlocks.AURORA_CRYSTAL);
+				changed.addAll(prism.fillRecursive(world, pos));
+				BlocksHelper.setWithoutUpdate(world, pos, EndBlocks.AURORA_CRYSTAL.getDefaultState(), changed);
 			}
 		}
 		
-		BlocksHelper.fixBlocks(world, new BlockPos(x1, y1, z1), new BlockPos(x2, y2, z2));
+		BlocksHelper.fixBlocks(world, changed);
 		
 		return true;
 	}
@@ -173,7 +174,7 @@ public class RoundCaveFeature extends DefaultFeature {
 				|| state.getMaterial().equals(Material.LEAVES);
 	}
 	
-	private void generateBush(StructureWorldAccess world, Random random, BlockPos blockPos) {
+	private void generateBush(StructureWorldAccess world, Random random, BlockPos blockPos, Set<BlockPos> changed) {
 		float radius = MHelper.randRange(1.0F, 3.2F, random);
 		OpenSimplexNoise noise = new OpenSimplexNoise(random.nextInt());
 		SDF sphere = new SDFSphere().setRadius(radius).setBlock(EndBlocks.CAVE_BUSH);
@@ -181,7 +182,7 @@ public class RoundCaveFeature extends DefaultFeature {
 		sphere = new SDFDisplacement().setFunction((vec) -> { return (float) noise.eval(vec.getX() * 0.2, vec.getY() * 0.2, vec.getZ() * 0.2) * 3; }).setSource(sphere);
 		sphere = new SDFDisplacement().setFunction((vec) -> { return random.nextFloat() * 3F - 1.5F; }).setSource(sphere);
 		sphere = new SDFSubtraction().setSourceA(sphere).setSourceB(new SDFTranslate().setTranslate(0, -radius, 0).setSource(sphere));
-		sphere.fillRecursive(world, blockPos);
-		BlocksHelper.setWithoutUpdate(world, blockPos, EndBlocks.CAVE_BUSH);
+		changed.addAll(sphere.fillRecursive(world, blockPos));
+		BlocksHelper.setWithoutUpdate(world, blockPos, EndBlocks.CAVE_BUSH.getDefaultState(), changed);
 	}
 }
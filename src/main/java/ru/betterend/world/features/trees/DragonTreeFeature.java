@@ -11,7 +11,6 @@ import net.minecraft.block.LeavesBlock;
 import net.minecraft.block.Material;
 import net.minecraft.client.util.math.Vector3f;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.Mutable;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
@@ -123,7 +122,7 @@ public class DragonTreeFeature extends DefaultFeature {
 		sphere = new SDFScale3D().setScale(1, 0.5F, 1).setSource(sphere);
 		sphere = new SDFDisplacement().setFunction((vec) -> { return (float) noise.eval(vec.getX() * 0.2, vec.getY() * 0.2, vec.getZ() * 0.2) * 1.5F; }).setSource(sphere);
 		sphere = new SDFDisplacement().setFunction((vec) -> { return random.nextFloat() * 3F - 1.5F; }).setSource(sphere);
-		Mutable mut = new Mutable();
+		List<BlockPos> logs = Lists.newArrayList();
 		sphere.setPostProcess((info) -> {
 			if (random.nextInt(5) == 0) {
 				for (Direction dir: Direction.values()) {
@@ -133,32 +132,12 @@ public class DragonTreeFeature extends DefaultFeature {
 					}
 				}
 				info.setState(EndBlocks.DRAGON_TREE.bark.getDefaultState());
-				for (int x = -6; x < 7; x++) {
-					int ax = Math.abs(x);
-					mut.setX(x + info.getPos().getX());
-					for (int z = -6; z < 7; z++) {
-						int az = Math.abs(z);
-						mut.setZ(z + info.getPos().getZ());
-						for (int y = -6; y < 7; y++) {
-							int ay = Math.abs(y);
-							int d = ax + ay + az;
-							if (d < 7) {
-								mut.setY(y + info.getPos().getY());
-								BlockState state = info.getState(mut);
-								if (state.getBlock() instanceof LeavesBlock) {
-									int distance = state.get(LeavesBlock.DISTANCE);
-									if (d < distance) {
-										info.setState(mut, state.with(LeavesBlock.DISTANCE, d));
-									}
-								}
-							}
-						}
-					}
-				}
+				logs.add(info.getPos());
 			}
 			return info.getState();
 		});
 		sphere.fillRecursiveIgnore(world, pos, IGNORE);
+		BlocksHelper.updateLeavesDistance(world, logs);
 		/*Collection<PosInfo> list = sphere.fillRecursiveIgnore(world, pos, IGNORE);
 		list.forEach((info) -> {
 			if (info.getState().getBlock() instanceof LeavesBlock && info.getState().get(LeavesBlock.DISTANCE) == 6) {
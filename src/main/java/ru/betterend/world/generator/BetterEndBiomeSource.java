@@ -6,6 +6,7 @@ import com.google.common.collect.Lists;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.util.math.noise.SimplexNoiseSampler;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.util.registry.RegistryLookupCodec;
@@ -38,8 +39,13 @@ public class BetterEndBiomeSource extends BiomeSource {
 	private BiomeMap mapLand;
 	private BiomeMap mapVoid;
 	private final long seed;
+	private final ThreadLocal<ColumnCache> columns = ThreadLocal.withInitial(ColumnCache::new);
 
 	public BetterEndBiomeSource(Registry<Biome> biomeRegistry, long seed) {
+		this(biomeRegistry, seed, true);
+	}
+	
+	private BetterEndBiomeSource(Registry<Biome> biomeRegistry, long seed, boolean initRegistry) {
 		super(getBiomes(biomeRegistry));
 		
 		this.mapLand = new BiomeMap(seed, 256, EndBiomes.LAND_BIOMES);
@@ -53,9 +59,19 @@ public class BetterEndBiomeSource extends BiomeSource {
 		chunkRandom.consume(17292);
 		this.noise = new SimplexNoiseSampler(chunkRandom);
 
-		EndBiomes.mutateRegistry(biomeRegistry);
-		EndTags.addTerrainTags(biomeRegistry);
-		FeaturesHelper.addFeatures(biomeRegistry);
+		if (initRegistry) {
+			EndBiomes.mutateRegistry(biomeRegistry);
+			EndTags.addTerrainTags(biomeRegistry);
+			FeaturesHelper.addFeatures(biomeRegistry);
+		}
+	}
+	
+	/**
+	 * Biome source for another seed that only creates its own noise and biome maps. Registry, biome pickers,
+	 * tags and features are not touched, so it is safe to use while the world is generating.
+	 */
+	public BetterEndBiomeSource withPreviewSeed(long seed) {
+		return new BetterEndBiomeSource(biomeRegistry, seed, false);
 	}
 	
 	private static List<Biome> getBiomes(Registry<Biome> biomeRegistry) {
@@ -68,13 +84,40 @@ public class BetterEndBiomeSource extends BiomeSource {
 		return list;
 	}
 
+	/**
+	 * Biome doesn't depend on biomeY, so each column is computed once and cached per thread.
+	 */
 	@Override
 	public Biome getBiomeForNoiseGen(int biomeX, int biomeY, int biomeZ) {
+		if (GeneratorProfiler.isTimingStages()) {
+			long start = System.nanoTime();
+			Biome biome = getColumnBiome(biomeX, biomeZ);
+			GeneratorProfiler.addBiomeSample(System.nanoTime() - start);
+			return biome;
+		}
+		return getColumnBiome(biomeX, biomeZ);
+	}
+	
+	private Biome getColumnBiome(int biomeX, int biomeZ) {
+		ColumnCache cache = columns.get();
+		long key = (long) biomeX << 32 | (biomeZ & 0xFFFFFFFFL);
+		int index = (int) HashCommon.mix(key) & ColumnCache.MASK;
+		Biome biome = cache.biomes[index];
+		if (biome != null && cache.keys[index] == key) {
+			return biome;
+		}
+		biome = getBiome(biomeX, biomeZ);
+		cache.keys[index] = key;
+		cache.biomes[index] = biome;
+		return biome;
+	}
+	
+	private Biome getBiome(int biomeX, int biomeZ) {
 		long i = (long) biomeX * (long) biomeX;
 		long j = (long) biomeZ * (long) biomeZ;
 		if (i + j <= 65536L) return this.centerBiome;
 		
-		float height = TheEndBiomeSource.getNoiseAt(noise, (biomeX >> 1) + 1, (biomeZ >> 1) + 1) + (float) SMALL_NOISE.eval(biomeX, biomeZ) * 5;
+		float height = getIslandHeight(biomeX, biomeZ);
 
 		if (height > -20F && height < -5F) {
 			return barrens;
@@ -88,6 +131,13 @@ public class BetterEndBiomeSource extends BiomeSource {
 		return endBiome.getActualBiome();
 	}
 
+	/**
+	 * Island noise value used for biome selection, same as vanilla End terrain noise with small variation.
+	 */
+	public float getIslandHeight(int biomeX, int biomeZ) {
+		return TheEndBiomeSource.getNoiseAt(noise, (biomeX >> 1) + 1, (biomeZ >> 1) + 1) + (float) SMALL_NOISE.eval(biomeX, biomeZ) * 5;
+	}
+
 	@Override
 	public BiomeSource withSeed(long seed) {
 		return new BetterEndBiomeSource(biomeRegistry, seed);
@@ -101,4 +151,15 @@ public class BetterEndBiomeSource extends BiomeSource {
 	public static void register() {
 		Registry.register(Registry.BIOME_SOURCE, BetterEnd.makeID("better_end_biome_source"), CODEC);
 	}
+	
+	/**
+	 * Direct-mapped cache of column biomes, collisions just replace old value.
+	 * 1024 entries cover columns of a chunk with all its neighbours many times over.
+	 */
+	private static final class ColumnCache {
+		static final int SIZE = 1024;
+		static final int MASK = SIZE - 1;
+		final long[] keys = new long[SIZE];
+		final Biome[] biomes = new Biome[SIZE];
+	}
 }
@@ -0,0 +1,56 @@
+package ru.betterend.world.generator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import ru.betterend.world.biome.EndBiome;
+
+/**
+ * Immutable list of biomes with cumulative chances, biome is selected by binary search over chances.
+ * Instances are replaced on registration and never changed, so selection is safe from any thread.
+ */
+public final class BiomeChances {
+	public static final BiomeChances EMPTY = new BiomeChances(new EndBiome[0], new float[0], 0);
+	
+	private final EndBiome[] biomes;
+	private final float[] chances;
+	private final float maxChance;
+	
+	private BiomeChances(EndBiome[] biomes, float[] chances, float maxChance) {
+		this.biomes = biomes;
+		this.chances = chances;
+		this.maxChance = maxChance;
+	}
+	
+	/**
+	 * Create chances from list of biomes.
+	 * @param biomes - {@link List} of {@link EndBiome}
+	 * @param chances - cumulative chances, same size as biomes list, should not decrease
+	 * @param maxChance - upper bound of random value, can be larger than last chance
+	 */
+	public static BiomeChances of(List<EndBiome> biomes, float[] chances, float maxChance) {
+		return new BiomeChances(biomes.toArray(new EndBiome[biomes.size()]), chances.clone(), maxChance);
+	}
+	
+	/**
+	 * Select biome with first cumulative chance that is not lower than random value.
+	 * Random value is always consumed, even if list is empty.
+	 * @param random - {@link Random}
+	 * @param fallback - {@link EndBiome} returned if random value is above all chances
+	 * @return selected {@link EndBiome}
+	 */
+	public EndBiome get(Random random, EndBiome fallback) {
+		float chance = random.nextFloat() * maxChance;
+		int index = Arrays.binarySearch(chances, chance);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		else {
+			while (index > 0 && chances[index - 1] == chance) {
+				index--;
+			}
+		}
+		return index < biomes.length ? biomes[index] : fallback;
+	}
+}
@@ -2,6 +2,7 @@ package ru.betterend.world.generator;
 
 import java.util.HashMap;
 
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.gen.ChunkRandom;
 import ru.betterend.noise.OpenSimplexNoise;
@@ -11,6 +12,7 @@ import ru.betterend.world.biome.EndBiome;
 public class BiomeMap
 {
 	private static final ChunkRandom RANDOM = new ChunkRandom();
+	private static final int RAW_CACHE_SIZE = 4096;
 	
 	private final HashMap<ChunkPos, BiomeChunk> maps = new HashMap<ChunkPos, BiomeChunk>();
 	private final int size;
@@ -19,6 +21,7 @@ public class BiomeMap
 	private final OpenSimplexNoise noiseX;
 	private final OpenSimplexNoise noiseZ;
 	private final BiomePicker picker;
+	private final RawBiome[] rawCache = new RawBiome[RAW_CACHE_SIZE];
 	
 	public BiomeMap(long seed, int size, BiomePicker picker)
 	{
@@ -82,9 +85,27 @@ public class BiomeMap
 		return chunk.getBiome(MHelper.floor(x), MHelper.floor(z));
 	}
 	
-	public EndBiome getBiome(int x, int z)
+	/**
+	 * Raw biomes are cached by position: edge checks sample positions with step of biome source resolution,
+	 * so most of them are reused by neighbour columns instead of repeating domain warping.
+	 */
+	private EndBiome getCachedRawBiome(int x, int z)
 	{
+		long key = (long) x << 32 | (z & 0xFFFFFFFFL);
+		int index = (int) HashCommon.mix(key) & (RAW_CACHE_SIZE - 1);
+		RawBiome raw = rawCache[index];
+		if (raw != null && raw.key == key)
+		{
+			return raw.biome;
+		}
 		EndBiome biome = getRawBiome(x, z);
+		rawCache[index] = new RawBiome(key, biome);
+		return biome;
+	}
+	
+	public EndBiome getBiome(int x, int z)
+	{
+		EndBiome biome = getCachedRawBiome(x, z);
 		
 		if (biome.hasEdge() || (biome.hasParentBiome() && biome.getParentBiome().hasEdge()))
 		{
@@ -93,10 +114,10 @@ public class BiomeMap
 				search = biome.getParentBiome();
 			int d = (int) Math.ceil(search.getEdgeSize() / 4F) << 2;
 			
-			boolean edge = !search.isSame(getRawBiome(x + d, z));
-			edge = edge || !search.isSame(getRawBiome(x - d, z));
-			edge = edge || !search.isSame(getRawBiome(x, z + d));
-			edge = edge || !search.isSame(getRawBiome(x, z - d));
+			boolean edge = !search.isSame(getCachedRawBiome(x + d, z));
+			edge = edge || !search.isSame(getCachedRawBiome(x - d, z));
+			edge = edge || !search.isSame(getCachedRawBiome(x, z + d));
+			edge = edge || !search.isSame(getCachedRawBiome(x, z - d));
 			edge = edge || !search.isSame(getRawBiome(x - 1, z - 1));
 			edge = edge || !search.isSame(getRawBiome(x - 1, z + 1));
 			edge = edge || !search.isSame(getRawBiome(x + 1, z - 1));
@@ -110,4 +131,19 @@ public class BiomeMap
 		
 		return biome;
 	}
+	
+	/**
+	 * Immutable cache entry, so racing threads can only see complete entries.
+	 */
+	private static final class RawBiome
+	{
+		final long key;
+		final EndBiome biome;
+		
+		RawBiome(long key, EndBiome biome)
+		{
+			this.key = key;
+			this.biome = biome;
+		}
+	}
 }
@@ -0,0 +1,119 @@
+package ru.betterend.world.generator;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.biome.Biome;
+
+/**
+ * Renders biomes and island heights of {@link BetterEndBiomeSource} into PNG images without generating chunks.
+ * Colors of biomes are derived from their IDs, so images of same seed and area are identical between runs
+ * and can be compared to catch changes in biome generation.
+ */
+public class BiomeMapRenderer {
+	private static final float MIN_HEIGHT = -100;
+	private static final float MAX_HEIGHT = 80;
+	
+	/**
+	 * Render square area.
+	 * @param source - {@link BetterEndBiomeSource} to sample
+	 * @param biomeRegistry - {@link Registry} of biomes, used to get biome IDs
+	 * @param centerX - X coordinate of area center in blocks
+	 * @param centerZ - Z coordinate of area center in blocks
+	 * @param radius - radius of area in blocks
+	 * @param step - distance between samples in blocks, 4 is resolution of biome source
+	 * @param biomeFile - {@link File} for biome image
+	 * @param heightFile - {@link File} for island height image
+	 * @return {@link Result} with sampling time
+	 * @throws IOException if images can't be written
+	 */
+	public static Result render(BetterEndBiomeSource source, Registry<Biome> biomeRegistry, int centerX, int centerZ, int radius, int step, File biomeFile, File heightFile) throws IOException {
+		int size = radius * 2 / step;
+		int startX = centerX - radius;
+		int startZ = centerZ - radius;
+		BufferedImage biomes = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		BufferedImage heights = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		
+		long start = Util.getMeasuringTimeNano();
+		for (int x = 0; x < size; x++) {
+			int bx = (startX + x * step) >> 2;
+			for (int z = 0; z < size; z++) {
+				int bz = (startZ + z * step) >> 2;
+				Biome biome = source.getBiomeForNoiseGen(bx, 0, bz);
+				biomes.setRGB(x, z, getColor(biomeRegistry.getId(biome)));
+				float height = source.getIslandHeight(bx, bz);
+				int gray = (int) (MathHelper.clamp((height - MIN_HEIGHT) / (MAX_HEIGHT - MIN_HEIGHT), 0, 1) * 255);
+				heights.setRGB(x, z, gray << 16 | gray << 8 | gray);
+			}
+		}
+		long time = Util.getMeasuringTimeNano() - start;
+		
+		ImageIO.write(biomes, "png", biomeFile);
+		ImageIO.write(heights, "png", heightFile);
+		return new Result((long) size * size, time);
+	}
+	
+	/**
+	 * Compare rendered image with golden image pixel by pixel.
+	 * @param image - rendered image {@link File}
+	 * @param golden - golden image {@link File}
+	 * @return number of different pixels, all pixels if sizes differ, -1 if golden image doesn't exist
+	 * @throws IOException if images can't be read
+	 */
+	public static int compare(File image, File golden) throws IOException {
+		if (!golden.isFile()) {
+			return -1;
+		}
+		BufferedImage a = ImageIO.read(image);
+		BufferedImage b = ImageIO.read(golden);
+		if (b == null || a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) {
+			return a.getWidth() * a.getHeight();
+		}
+		int count = 0;
+		for (int x = 0; x < a.getWidth(); x++) {
+			for (int z = 0; z < a.getHeight(); z++) {
+				if ((a.getRGB(x, z) & 0xFFFFFF) != (b.getRGB(x, z) & 0xFFFFFF)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+	
+	private static int getColor(Identifier id) {
+		if (id == null) {
+			return 0;
+		}
+		return HashCommon.mix(id.toString().hashCode()) & 0xFFFFFF;
+	}
+	
+	public static final class Result {
+		private final long samples;
+		private final long nanos;
+		
+		private Result(long samples, long nanos) {
+			this.samples = samples;
+			this.nanos = nanos;
+		}
+		
+		public long getSamples() {
+			return samples;
+		}
+		
+		public long getNanos() {
+			return nanos;
+		}
+		
+		public double getSamplesPerSecond() {
+			return nanos > 0 ? samples * 1000000000.0 / nanos : 0;
+		}
+	}
+}
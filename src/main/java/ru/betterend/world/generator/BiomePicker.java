@@ -14,35 +14,39 @@ import ru.betterend.world.biome.EndBiome;
 public class BiomePicker {
 	private final Set<Identifier> immutableIDs = Sets.newHashSet();
 	private final List<EndBiome> biomes = Lists.newArrayList();
-	private float maxChanceUnmutable = 0;
-	private float maxChance = 0;
+	private volatile BiomeChances chances = BiomeChances.EMPTY;
 	private int biomeCount = 0;
 	
 	public void addBiome(EndBiome biome) {
-		maxChance = biome.mutateGenChance(maxChance);
 		immutableIDs.add(biome.getID());
-		maxChanceUnmutable = maxChance;
 		biomes.add(biome);
 		biomeCount ++;
+		updateChances();
 	}
 	
 	public void addBiomeMutable(EndBiome biome) {
 		biomes.add(biome);
-		maxChance = biome.mutateGenChance(maxChance);
+		updateChances();
 	}
 	
 	public void clearMutables() {
-		maxChance = maxChanceUnmutable;
 		for (int i = biomes.size() - 1; i >= biomeCount; i--)
 			biomes.remove(i);
+		updateChances();
+	}
+	
+	private void updateChances() {
+		float[] values = new float[biomes.size()];
+		float maxChance = 0;
+		for (int i = 0; i < values.length; i++) {
+			maxChance += biomes.get(i).getGenChance();
+			values[i] = maxChance;
+		}
+		chances = BiomeChances.of(biomes, values, maxChance);
 	}
 	
 	public EndBiome getBiome(Random random) {
-		float chance = random.nextFloat() * maxChance;
-		for (EndBiome biome: biomes)
-			if (biome.canGenerate(chance))
-				return biome;
-		return EndBiomes.END;
+		return chances.get(random, EndBiomes.END);
 	}
 	
 	public List<EndBiome> getBiomes() {
@@ -0,0 +1,315 @@
+package ru.betterend.world.generator;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import net.minecraft.structure.StructurePiece;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.gen.feature.Feature;
+import ru.betterend.BetterEnd;
+import ru.betterend.config.ConfigKeeper.BooleanEntry;
+import ru.betterend.config.ConfigKeeper.IntegerEntry;
+import ru.betterend.config.ConfigWriter;
+
+/**
+ * Opt-in statistics for BetterEnd world generation: features, structure pieces, biome source
+ * and End chunk generation stages (structure starts and feature decoration).
+ * Time is inclusive (nested features are also counted in their parent), same for blocks and chunk accesses.
+ * Biome source and stages can be timed without full profiling, pregenerator uses it for its reports.
+ */
+public class GeneratorProfiler {
+	public static final File DUMP_FILE = new File(ConfigWriter.MOD_CONFIG_DIR, "worldgen_profile.csv");
+	
+	private static final Map<Object, Stats> STATS = Maps.newConcurrentMap();
+	private static final ThreadLocal<Deque<Frame>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+	private static final Stats BIOME_SOURCE = new Stats("biome_source", "getBiomeForNoiseGen");
+	private static final BooleanEntry ENABLED = BetterEnd.CONFIG.getBooleanEntry("debug", "worldgen_profiler", false);
+	private static final IntegerEntry DUMP_INTERVAL = BetterEnd.CONFIG.getIntEntry("debug", "worldgen_profiler_dump_seconds", 0);
+	private static volatile boolean stageTiming;
+	private static int ticks;
+	
+	public static final String STRUCTURE_STARTS = "structure_starts";
+	public static final String FEATURES = "features";
+	
+	public static boolean isEnabled() {
+		return ENABLED.getValue();
+	}
+	
+	/**
+	 * Biome source and generation stages are timed when profiler is enabled or when stage timing is requested.
+	 */
+	public static boolean isTimingStages() {
+		return ENABLED.getValue() || stageTiming;
+	}
+	
+	public static void setStageTiming(boolean stageTiming) {
+		GeneratorProfiler.stageTiming = stageTiming;
+	}
+	
+	/**
+	 * Change config value, it will be replaced with value from file on config reload.
+	 */
+	public static void setEnabled(boolean enabled) {
+		ENABLED.setValue(enabled);
+	}
+	
+	public static void reset() {
+		STATS.clear();
+		BIOME_SOURCE.reset();
+	}
+	
+	public static void startFeature(Feature<?> feature) {
+		start(feature, (key) -> new Stats("feature", getName(Registry.FEATURE.getId(feature), feature)));
+	}
+	
+	public static void startPiece(StructurePiece piece) {
+		start(piece.getType(), (key) -> new Stats("piece", getName(Registry.STRUCTURE_PIECE.getId(piece.getType()), piece)));
+	}
+	
+	/**
+	 * Start generation stage, stage name should be one of constants so it can be used as a key.
+	 * Stages are outermost measurements of a chunk, so frames left by generation that failed with exception are dropped.
+	 */
+	public static void startStage(String stage) {
+		FRAMES.get().clear();
+		start(stage, (key) -> new Stats("stage", stage));
+	}
+	
+	private static String getName(Identifier id, Object object) {
+		return id == null ? object.getClass().getSimpleName() : id.toString();
+	}
+	
+	private static void start(Object key, Function<Object, Stats> factory) {
+		FRAMES.get().push(new Frame(key, STATS.computeIfAbsent(key, factory)));
+	}
+	
+	public static void endFeature(Feature<?> feature) {
+		end(feature);
+	}
+	
+	public static void endPiece(StructurePiece piece) {
+		end(piece.getType());
+	}
+	
+	/**
+	 * Finish measurement started with same key. Can be called when profiler is disabled,
+	 * in that case there will be no frame and nothing happens. Unfinished frames above the matching one
+	 * (left by exceptions) are dropped without statistics.
+	 */
+	private static void end(Object key) {
+		Deque<Frame> frames = FRAMES.get();
+		if (!hasFrame(frames, key)) {
+			return;
+		}
+		Frame frame = frames.pop();
+		while (frame.key != key) {
+			frame = frames.pop();
+		}
+		frame.stats.add(System.nanoTime() - frame.start, frame.blocks, frame.chunks);
+		Frame parent = frames.peek();
+		if (parent != null) {
+			parent.blocks += frame.blocks;
+			parent.chunks += frame.chunks;
+		}
+	}
+	
+	private static boolean hasFrame(Deque<Frame> frames, Object key) {
+		for (Frame frame: frames) {
+			if (frame.key == key) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public static void endStage(String stage) {
+		end(stage);
+	}
+	
+	public static void addBiomeSample(long nanos) {
+		BIOME_SOURCE.add(nanos, 0, 0);
+	}
+	
+	/**
+	 * Total time of generation stage in nanoseconds, 0 if stage was not measured.
+	 */
+	public static long getStageNanos(String stage) {
+		Stats stats = STATS.get(stage);
+		return stats == null ? 0 : stats.getTotalNanos();
+	}
+	
+	public static long getBiomeSourceNanos() {
+		return BIOME_SOURCE.getTotalNanos();
+	}
+	
+	public static void onBlockSet() {
+		Frame frame = FRAMES.get().peek();
+		if (frame != null) {
+			frame.blocks++;
+		}
+	}
+	
+	public static void onChunkAccess() {
+		Frame frame = FRAMES.get().peek();
+		if (frame != null) {
+			frame.chunks++;
+		}
+	}
+	
+	/**
+	 * Get current statistics sorted by total time, biome source is included.
+	 */
+	public static List<Stats> getStats() {
+		List<Stats> list = Lists.newArrayList(STATS.values());
+		if (BIOME_SOURCE.getCount() > 0) {
+			list.add(BIOME_SOURCE);
+		}
+		list.sort(Comparator.comparingLong(Stats::getTotalNanos).reversed());
+		return list;
+	}
+	
+	public static void onServerTick() {
+		int interval = DUMP_INTERVAL.getValue() * 20;
+		if (isEnabled() && interval > 0 && ++ticks >= interval) {
+			ticks = 0;
+			dump(DUMP_FILE);
+		}
+	}
+	
+	public static boolean dump(File file) {
+		try (FileWriter writer = new FileWriter(file)) {
+			writer.write("type,name,count,total_ms,avg_us,p50_us,p90_us,p99_us,blocks,chunk_accesses\n");
+			for (Stats stats: getStats()) {
+				writer.write(stats.toCSV());
+				writer.write('\n');
+			}
+			return true;
+		}
+		catch (IOException e) {
+			BetterEnd.LOGGER.error("Unable to write worldgen profile", e);
+			return false;
+		}
+	}
+	
+	private static final class Frame {
+		final Object key;
+		final Stats stats;
+		final long start;
+		long blocks;
+		long chunks;
+		
+		Frame(Object key, Stats stats) {
+			this.key = key;
+			this.stats = stats;
+			this.start = System.nanoTime();
+		}
+	}
+	
+	public static final class Stats {
+		private static final int BUCKETS = 64;
+		
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder blocks = new LongAdder();
+		private final LongAdder chunks = new LongAdder();
+		private final String type;
+		private final String name;
+		
+		private Stats(String type, String name) {
+			this.type = type;
+			this.name = name;
+		}
+		
+		private void add(long time, long blocks, long chunks) {
+			count.increment();
+			nanos.add(time);
+			this.blocks.add(blocks);
+			this.chunks.add(chunks);
+			histogram.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(Math.max(time, 1)));
+		}
+		
+		private void reset() {
+			count.reset();
+			nanos.reset();
+			blocks.reset();
+			chunks.reset();
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram.set(i, 0);
+			}
+		}
+		
+		public String getType() {
+			return type;
+		}
+		
+		public String getName() {
+			return name;
+		}
+		
+		public long getCount() {
+			return count.sum();
+		}
+		
+		public long getTotalNanos() {
+			return nanos.sum();
+		}
+		
+		public long getBlocks() {
+			return blocks.sum();
+		}
+		
+		public long getChunkAccesses() {
+			return chunks.sum();
+		}
+		
+		/**
+		 * Approximate percentile, histogram buckets are powers of two so result is an upper bound of bucket.
+		 * @param percentile - value in [0, 1] range
+		 * @return time in nanoseconds
+		 */
+		public long getPercentile(double percentile) {
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				total += histogram.get(i);
+			}
+			long target = (long) Math.ceil(total * percentile);
+			long sum = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				sum += histogram.get(i);
+				if (sum >= target && sum > 0) {
+					return i < BUCKETS - 1 ? (1L << (i + 1)) - 1 : Long.MAX_VALUE;
+				}
+			}
+			return 0;
+		}
+		
+		public String toCSV() {
+			long count = getCount();
+			long total = getTotalNanos();
+			return String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d",
+				type, name, count,
+				total / 1000000.0,
+				count > 0 ? total / 1000.0 / count : 0.0,
+				getPercentile(0.5) / 1000.0,
+				getPercentile(0.9) / 1000.0,
+				getPercentile(0.99) / 1000.0,
+				getBlocks(), getChunkAccesses()
+			);
+		}
+	}
+}
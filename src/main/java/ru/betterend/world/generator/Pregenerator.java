@@ -0,0 +1,271 @@
+package ru.betterend.world.generator;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Locale;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.PersistentState;
+import ru.betterend.BetterEnd;
+import ru.betterend.config.ConfigKeeper.IntegerEntry;
+
+/**
+ * Generates End chunks in a square spiral around world center. Chunks are requested with tickets and generated
+ * by chunk manager workers, server thread only checks which of them are loaded, so ticks are never blocked.
+ * Number of requested chunks is limited, progress is stored in {@link Checkpoint} so generation continues after restart.
+ * Spiral order does not depend on radius, so checkpoint stays valid when radius is changed.
+ */
+public class Pregenerator {
+	private static final ChunkTicketType<ChunkPos> TICKET = ChunkTicketType.create("betterend_pregen", Comparator.comparingLong(ChunkPos::toLong));
+	private static final IntegerEntry CHUNKS_IN_FLIGHT = BetterEnd.CONFIG.getIntEntry("pregen", "chunks_in_flight", 16);
+	private static final IntegerEntry REPORT_INTERVAL = BetterEnd.CONFIG.getIntEntry("pregen", "report_seconds", 30);
+	private static final long CHUNK_TIMEOUT = 60000;
+	private static Task task;
+	
+	/**
+	 * Start or continue generation in the world.
+	 * @param world - {@link ServerWorld} to generate chunks in
+	 * @param radius - radius in chunks
+	 * @return false if generation is already running
+	 */
+	public static boolean start(ServerWorld world, int radius) {
+		if (task != null) {
+			return false;
+		}
+		Checkpoint checkpoint = Checkpoint.get(world);
+		checkpoint.radius = radius;
+		checkpoint.markDirty();
+		task = new Task(world, checkpoint);
+		GeneratorProfiler.setStageTiming(true);
+		BetterEnd.LOGGER.info("Pregenerating {} chunks in radius {}, starting from chunk {}", task.total, radius, checkpoint.index);
+		return true;
+	}
+	
+	/**
+	 * Stop generation, checkpoint is kept.
+	 * @return false if generation is not running
+	 */
+	public static boolean stop() {
+		if (task == null) {
+			return false;
+		}
+		BetterEnd.LOGGER.info(task.getReport());
+		task.releaseTickets();
+		finish();
+		return true;
+	}
+	
+	/**
+	 * Reset checkpoint of the world, generation should be stopped.
+	 */
+	public static void reset(ServerWorld world) {
+		Checkpoint checkpoint = Checkpoint.get(world);
+		checkpoint.index = 0;
+		checkpoint.markDirty();
+	}
+	
+	public static boolean isRunning() {
+		return task != null;
+	}
+	
+	/**
+	 * Human-readable progress, speed and time split of current generation, null if generation is not running.
+	 */
+	public static String getReport() {
+		return task == null ? null : task.getReport();
+	}
+	
+	public static void onServerTick() {
+		if (task == null) {
+			return;
+		}
+		
+		ServerChunkManager manager = task.world.getChunkManager();
+		Checkpoint checkpoint = task.checkpoint;
+		long time = Util.getMeasuringTimeMs();
+		for (PendingChunk chunk: task.pending) {
+			if (chunk.done) {
+				continue;
+			}
+			boolean loaded = manager.isChunkLoaded(chunk.pos.x, chunk.pos.z);
+			if (loaded || time - chunk.requestTime > CHUNK_TIMEOUT) {
+				if (!loaded) {
+					BetterEnd.LOGGER.warning("Chunk {} was not generated in {} s, skipping it", chunk.pos, CHUNK_TIMEOUT / 1000);
+				}
+				chunk.done = true;
+				task.loading--;
+				task.generated++;
+				manager.removeTicket(TICKET, chunk.pos, 0, chunk.pos);
+			}
+		}
+		
+		// Checkpoint only moves over finished chunks, so restart never skips requested but unfinished ones
+		boolean changed = false;
+		while (!task.pending.isEmpty() && task.pending.peekFirst().done) {
+			task.pending.pollFirst();
+			checkpoint.index++;
+			changed = true;
+		}
+		if (changed) {
+			checkpoint.markDirty();
+		}
+		
+		int limit = Math.max(1, CHUNKS_IN_FLIGHT.getValue());
+		while (task.loading < limit && task.nextIndex < task.total) {
+			ChunkPos pos = getSpiralPos(task.nextIndex++);
+			manager.addTicket(TICKET, pos, 0, pos);
+			task.pending.addLast(new PendingChunk(pos, time));
+			task.loading++;
+		}
+		
+		if (checkpoint.index >= task.total) {
+			BetterEnd.LOGGER.info("Pregeneration finished. " + task.getReport());
+			finish();
+			return;
+		}
+		
+		int interval = REPORT_INTERVAL.getValue() * 1000;
+		if (interval > 0 && time - task.lastReport >= interval) {
+			task.lastReport = time;
+			BetterEnd.LOGGER.info(task.getReport());
+		}
+	}
+	
+	public static void onServerStopped() {
+		finish();
+	}
+	
+	private static void finish() {
+		task = null;
+		GeneratorProfiler.setStageTiming(false);
+	}
+	
+	/**
+	 * Position of chunk in square spiral, spiral goes counterclockwise ring by ring starting from 0, 0.
+	 */
+	public static ChunkPos getSpiralPos(long index) {
+		if (index == 0) {
+			return new ChunkPos(0, 0);
+		}
+		int ring = (int) Math.ceil((Math.sqrt(index + 1) - 1) * 0.5);
+		long side = ring << 1;
+		long last = (side + 1) * (side + 1) - 1;
+		if (index >= last - side) {
+			return new ChunkPos((int) (ring - (last - index)), -ring);
+		}
+		last -= side;
+		if (index >= last - side) {
+			return new ChunkPos(-ring, (int) (-ring + (last - index)));
+		}
+		last -= side;
+		if (index >= last - side) {
+			return new ChunkPos((int) (-ring + (last - index)), ring);
+		}
+		return new ChunkPos(ring, (int) (ring - (last - index - side)));
+	}
+	
+	private static final class PendingChunk {
+		final ChunkPos pos;
+		final long requestTime;
+		boolean done;
+		
+		PendingChunk(ChunkPos pos, long requestTime) {
+			this.pos = pos;
+			this.requestTime = requestTime;
+		}
+	}
+	
+	private static final class Task {
+		final ServerWorld world;
+		final Checkpoint checkpoint;
+		final Deque<PendingChunk> pending = new ArrayDeque<PendingChunk>();
+		final long total;
+		final long startTime;
+		final long startBiomeNanos;
+		final long startStructureNanos;
+		final long startFeatureNanos;
+		long lastReport;
+		long generated;
+		long nextIndex;
+		int loading;
+		
+		Task(ServerWorld world, Checkpoint checkpoint) {
+			long size = checkpoint.radius * 2L + 1;
+			this.world = world;
+			this.checkpoint = checkpoint;
+			this.total = size * size;
+			this.startTime = Util.getMeasuringTimeMs();
+			this.lastReport = startTime;
+			this.startBiomeNanos = GeneratorProfiler.getBiomeSourceNanos();
+			this.startStructureNanos = GeneratorProfiler.getStageNanos(GeneratorProfiler.STRUCTURE_STARTS);
+			this.startFeatureNanos = GeneratorProfiler.getStageNanos(GeneratorProfiler.FEATURES);
+			this.nextIndex = checkpoint.index;
+		}
+		
+		void releaseTickets() {
+			ServerChunkManager manager = world.getChunkManager();
+			for (PendingChunk chunk: pending) {
+				if (!chunk.done) {
+					manager.removeTicket(TICKET, chunk.pos, 0, chunk.pos);
+				}
+			}
+			pending.clear();
+		}
+		
+		/**
+		 * Stage times are summed over all worldgen threads and are inclusive,
+		 * biome source is also called during structure starts, so shares are relative to wall time.
+		 */
+		String getReport() {
+			long time = Math.max(1, Util.getMeasuringTimeMs() - startTime);
+			double seconds = time / 1000.0;
+			double biome = Math.max(0, GeneratorProfiler.getBiomeSourceNanos() - startBiomeNanos) / 1000000.0;
+			double structures = Math.max(0, GeneratorProfiler.getStageNanos(GeneratorProfiler.STRUCTURE_STARTS) - startStructureNanos) / 1000000.0;
+			double features = Math.max(0, GeneratorProfiler.getStageNanos(GeneratorProfiler.FEATURES) - startFeatureNanos) / 1000000.0;
+			return String.format(Locale.ROOT, "Pregen: %d/%d chunks (%.1f%%), %.1f chunks/s; biome source %.0f ms (%.0f%%), structure starts %.0f ms (%.0f%%), features %.0f ms (%.0f%%)",
+				checkpoint.index, total, checkpoint.index * 100.0 / total,
+				generated / seconds,
+				biome, biome * 100 / time,
+				structures, structures * 100 / time,
+				features, features * 100 / time
+			);
+		}
+	}
+	
+	/**
+	 * Index of next chunk in spiral and last used radius, stored in the world.
+	 */
+	public static class Checkpoint extends PersistentState {
+		private static final String KEY = "betterend_pregen";
+		
+		private long index;
+		private int radius;
+		
+		public Checkpoint() {
+			super(KEY);
+		}
+		
+		public static Checkpoint get(ServerWorld world) {
+			return world.getPersistentStateManager().getOrCreate(Checkpoint::new, KEY);
+		}
+		
+		@Override
+		public void fromTag(CompoundTag tag) {
+			index = tag.getLong("index");
+			radius = tag.getInt("radius");
+		}
+		
+		@Override
+		public CompoundTag toTag(CompoundTag tag) {
+			tag.putLong("index", index);
+			tag.putInt("radius", radius);
+			return tag;
+		}
+	}
+}
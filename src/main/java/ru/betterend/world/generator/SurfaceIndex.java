@@ -0,0 +1,165 @@
+package ru.betterend.world.generator;
+
+import java.util.BitSet;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.Mutable;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.WorldAccess;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import ru.betterend.interfaces.SurfaceIndexHolder;
+import ru.betterend.util.BlocksHelper;
+
+/**
+ * Column index of non-air blocks for one decoration pass (one chunk region). Each column is read
+ * from chunk sections once (empty sections are skipped) when it is requested first time,
+ * after that floors, ceilings and rays are answered without block lookups.
+ * Index is updated on every block set in the region and dropped after structure pieces,
+ * since pieces write into chunks directly.
+ */
+public class SurfaceIndex {
+	private final Long2ObjectMap<BitSet> columns = new Long2ObjectOpenHashMap<BitSet>();
+	protected final WorldAccess world;
+	private final int height;
+	
+	public SurfaceIndex(WorldAccess world) {
+		this.world = world;
+		this.height = world.getHeight();
+	}
+	
+	/**
+	 * Get index of world if it has one (decoration chunk region), otherwise index that reads world directly.
+	 */
+	public static SurfaceIndex get(WorldAccess world) {
+		return world instanceof SurfaceIndexHolder ? ((SurfaceIndexHolder) world).beGetSurfaceIndex() : new Direct(world);
+	}
+	
+	public boolean isAir(int x, int y, int z) {
+		return y < 0 || y >= height || !getColumn(x, z).get(y);
+	}
+	
+	public boolean isAir(BlockPos pos) {
+		return isAir(pos.getX(), pos.getY(), pos.getZ());
+	}
+	
+	/**
+	 * Air block with non-air block below.
+	 */
+	public boolean isFloor(int x, int y, int z) {
+		return isAir(x, y, z) && !isAir(x, y - 1, z);
+	}
+	
+	/**
+	 * Air block with non-air block above.
+	 */
+	public boolean isCeiling(int x, int y, int z) {
+		return isAir(x, y, z) && !isAir(x, y + 1, z);
+	}
+	
+	/**
+	 * Same result as {@link BlocksHelper#upRay(WorldAccess, BlockPos, int)}.
+	 */
+	public int upRay(BlockPos pos, int maxDist) {
+		int limit = Math.max(maxDist - 1, 0);
+		int start = pos.getY() + 1;
+		if (start >= height) {
+			return limit;
+		}
+		int solid = getColumn(pos.getX(), pos.getZ()).nextSetBit(Math.max(start, 0));
+		return solid < 0 ? limit : Math.min(limit, solid - start);
+	}
+	
+	/**
+	 * Same result as {@link BlocksHelper#downRay(WorldAccess, BlockPos, int)}.
+	 */
+	public int downRay(BlockPos pos, int maxDist) {
+		int limit = Math.max(maxDist - 1, 0);
+		int start = pos.getY() - 1;
+		if (start < 0) {
+			return limit;
+		}
+		int solid = getColumn(pos.getX(), pos.getZ()).previousSetBit(Math.min(start, height - 1));
+		return solid < 0 ? limit : Math.min(limit, start - solid);
+	}
+	
+	public void onBlockSet(BlockPos pos, BlockState state) {
+		int y = pos.getY();
+		if (y < 0 || y >= height) {
+			return;
+		}
+		BitSet column = columns.get(ChunkPos.toLong(pos.getX(), pos.getZ()));
+		if (column != null) {
+			column.set(y, !state.isAir());
+		}
+	}
+	
+	public void invalidate() {
+		columns.clear();
+	}
+	
+	private BitSet getColumn(int x, int z) {
+		long key = ChunkPos.toLong(x, z);
+		BitSet column = columns.get(key);
+		if (column == null) {
+			column = readColumn(x, z);
+			columns.put(key, column);
+		}
+		return column;
+	}
+	
+	private BitSet readColumn(int x, int z) {
+		BitSet column = new BitSet(height);
+		Chunk chunk = world.getChunk(x >> 4, z >> 4);
+		ChunkSection[] sections = chunk.getSectionArray();
+		int px = x & 15;
+		int pz = z & 15;
+		for (ChunkSection section: sections) {
+			if (ChunkSection.isEmpty(section)) {
+				continue;
+			}
+			int offset = section.getYOffset();
+			for (int y = 0; y < 16; y++) {
+				if (!section.getBlockState(px, y, pz).isAir()) {
+					column.set(offset + y);
+				}
+			}
+		}
+		return column;
+	}
+	
+	/**
+	 * Fallback for worlds without index (features placed outside of world generation), nothing is cached.
+	 */
+	private static final class Direct extends SurfaceIndex {
+		private final Mutable pos = new Mutable();
+		
+		private Direct(WorldAccess world) {
+			super(world);
+		}
+		
+		@Override
+		public boolean isAir(int x, int y, int z) {
+			return world.isAir(pos.set(x, y, z));
+		}
+		
+		@Override
+		public int upRay(BlockPos pos, int maxDist) {
+			return BlocksHelper.upRay(world, pos, maxDist);
+		}
+		
+		@Override
+		public int downRay(BlockPos pos, int maxDist) {
+			return BlocksHelper.downRay(world, pos, maxDist);
+		}
+		
+		@Override
+		public void onBlockSet(BlockPos pos, BlockState state) {}
+		
+		@Override
+		public void invalidate() {}
+	}
+}
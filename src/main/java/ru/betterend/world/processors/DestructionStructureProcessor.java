@@ -1,14 +1,20 @@
 package ru.betterend.world.processors;
 
+import net.minecraft.block.Block;
 import net.minecraft.structure.Structure.StructureBlockInfo;
 import net.minecraft.structure.StructurePlacementData;
 import net.minecraft.structure.processor.StructureProcessor;
 import net.minecraft.structure.processor.StructureProcessorType;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.WorldView;
 import ru.betterend.registry.EndBlocks;
 import ru.betterend.util.MHelper;
 
+/**
+ * Removes random blocks from structure. Removed blocks are selected by hash of world seed, structure position
+ * and block position, so same structure is always destroyed in the same way and processor has no shared state.
+ */
 public class DestructionStructureProcessor extends StructureProcessor {
 	private int chance = 4;
 	
@@ -18,7 +24,15 @@ public class DestructionStructureProcessor extends StructureProcessor {
 	
 	@Override
 	public StructureBlockInfo process(WorldView worldView, BlockPos pos, BlockPos blockPos, StructureBlockInfo structureBlockInfo, StructureBlockInfo structureBlockInfo2, StructurePlacementData structurePlacementData) {
-		if (!structureBlockInfo2.state.isOf(EndBlocks.ETERNAL_PEDESTAL) && !structureBlockInfo2.state.isOf(EndBlocks.FLAVOLITE_RUNED_ETERNAL) && MHelper.RANDOM.nextInt(chance) == 0) {
+		Block block = structureBlockInfo2.state.getBlock();
+		if (block == EndBlocks.ETERNAL_PEDESTAL || block == EndBlocks.FLAVOLITE_RUNED_ETERNAL) {
+			return structureBlockInfo2;
+		}
+		
+		long worldSeed = worldView instanceof StructureWorldAccess ? ((StructureWorldAccess) worldView).getSeed() : 0;
+		int seed = MHelper.getSeed((int) (worldSeed ^ (worldSeed >>> 32)), pos.getX(), pos.getY(), pos.getZ());
+		BlockPos blockPos2 = structureBlockInfo2.pos;
+		if (Math.floorMod(MHelper.getSeed(seed, blockPos2.getX(), blockPos2.getY(), blockPos2.getZ()), chance) == 0) {
 			return null;
 		}
 		return structureBlockInfo2;
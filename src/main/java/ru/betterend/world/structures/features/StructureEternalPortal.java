@@ -23,7 +23,10 @@ import ru.betterend.world.structures.piece.NBTPiece;
 
 public class StructureEternalPortal extends StructureFeatureBase {
 	private static final Identifier STRUCTURE_ID = BetterEnd.makeID("portal/eternal_portal");
-	private static final Structure STRUCTURE = StructureHelper.readStructure(STRUCTURE_ID);
+	
+	static {
+		StructureHelper.preloadStructure(STRUCTURE_ID);
+	}
 	
 	@Override
 	protected boolean shouldStartAt(ChunkGenerator chunkGenerator, BiomeSource biomeSource, long worldSeed, ChunkRandom chunkRandom, int chunkX, int chunkZ, Biome biome, ChunkPos chunkPos, DefaultFeatureConfig featureConfig) {
@@ -55,7 +58,8 @@ public class StructureEternalPortal extends StructureFeatureBase {
 			int z = (chunkZ << 4) | MHelper.randRange(4, 12, random);
 			int y = chunkGenerator.getHeight(x, z, Type.WORLD_SURFACE_WG);
 			if (y > 10) {
-				this.children.add(new NBTPiece(STRUCTURE_ID, STRUCTURE, new BlockPos(x, y - 4, z), random.nextInt(5), true, random));
+				Structure structure = StructureHelper.getStructure(STRUCTURE_ID);
+				this.children.add(new NBTPiece(STRUCTURE_ID, structure, new BlockPos(x, y - 4, z), random.nextInt(5), true, random));
 			}
 			this.setBoundingBoxFromChildren();
 		}
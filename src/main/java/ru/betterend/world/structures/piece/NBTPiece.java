@@ -64,7 +64,7 @@ public class NBTPiece extends BasePiece {
 		erosion = tag.getInt("erosion");
 		pos = NbtHelper.toBlockPos(tag.getCompound("pos"));
 		cover = tag.getBoolean("cover");
-		structure = StructureHelper.readStructure(structureID);
+		structure = StructureHelper.getStructure(structureID);
 	}
 
 	@Override
@@ -14,8 +14,12 @@ import net.minecraft.world.gen.surfacebuilder.TernarySurfaceConfig;
 import ru.betterend.noise.OpenSimplexNoise;
 import ru.betterend.util.MHelper;
 
+/**
+ * Surface with two top blocks selected by noise. Noise is seeded by world seed and evaluated per column,
+ * so biomes that cover only a few columns of a chunk don't pay for the whole chunk.
+ */
 public class DoubleBlockSurfaceBuilder extends SurfaceBuilder<TernarySurfaceConfig> {
-	private static final OpenSimplexNoise NOISE = new OpenSimplexNoise(4141);
+	private volatile SeededNoise noise;
 	private TernarySurfaceConfig config1;
 	private TernarySurfaceConfig config2;
 	
@@ -35,9 +39,27 @@ public class DoubleBlockSurfaceBuilder extends SurfaceBuilder<TernarySurfaceConf
 		return this;
 	}
 
+	@Override
+	public void initSeed(long seed) {
+		getNoise(seed);
+	}
+	
+	/**
+	 * Noise of the world seed, noise and its seed are published together through one volatile field,
+	 * so worldgen threads never see noise of one seed with another seed.
+	 */
+	private OpenSimplexNoise getNoise(long seed) {
+		SeededNoise noise = this.noise;
+		if (noise == null || noise.seed != seed) {
+			noise = new SeededNoise(seed);
+			this.noise = noise;
+		}
+		return noise.noise;
+	}
+
 	@Override
 	public void generate(Random random, Chunk chunk, Biome biome, int x, int z, int height, double noise, BlockState defaultBlock, BlockState defaultFluid, int seaLevel, long seed, TernarySurfaceConfig surfaceBlocks) {
-		noise = NOISE.eval(x * 0.1, z * 0.1) + MHelper.randRange(-0.4, 0.4, random);
+		noise = getNoise(seed).eval(x * 0.1, z * 0.1) + MHelper.randRange(-0.4, 0.4, random);
 		SurfaceBuilder.DEFAULT.generate(random, chunk, biome, x, z, height, noise, defaultBlock, defaultFluid, seaLevel, seed, noise > 0 ? config1 : config2);
 	}
 	
@@ -49,4 +71,14 @@ public class DoubleBlockSurfaceBuilder extends SurfaceBuilder<TernarySurfaceConf
 		BlockState stone = Blocks.END_STONE.getDefaultState();
 		return this.withConfig(new TernarySurfaceConfig(config1.getTopMaterial(), stone, stone));
 	}
-}
\ No newline at end of file
+	
+	private static final class SeededNoise {
+		final OpenSimplexNoise noise;
+		final long seed;
+		
+		SeededNoise(long seed) {
+			this.noise = new OpenSimplexNoise(seed);
+			this.seed = seed;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package ru.betterend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ProtoChunk;
+import net.minecraft.world.chunk.UpgradeData;
+
+/**
+ * Compares section skipping rays with reference per-block rays on random End-like chunks.
+ */
+public class BlocksHelperTest {
+	private static final int HEIGHT = 256;
+	private static final int[] DISTANCES = new int[] { 0, 1, 2, 5, 16, 17, 33, 64, 300 };
+	
+	@BeforeAll
+	public static void bootstrap() {
+		Bootstrap.initialize();
+	}
+	
+	@Test
+	public void raysMatchReference() {
+		Random random = new Random(0);
+		for (int i = 0; i < 16; i++) {
+			ProtoChunk chunk = makeChunk(random);
+			for (int n = 0; n < 512; n++) {
+				BlockPos pos = new BlockPos(random.nextInt(16), random.nextInt(HEIGHT + 32) - 16, random.nextInt(16));
+				int top = getTop(chunk, pos.getX(), pos.getZ());
+				for (int dist: DISTANCES) {
+					int up = BlocksHelper.upRaySlow(chunk, pos, dist);
+					int down = BlocksHelper.downRaySlow(chunk, pos, dist);
+					String message = "chunk " + i + ", " + pos + ", distance " + dist;
+					assertEquals(up, BlocksHelper.upRay(chunk, pos, dist, HEIGHT - 1), message);
+					assertEquals(up, BlocksHelper.upRay(chunk, pos, dist, top), message);
+					assertEquals(down, BlocksHelper.downRay(chunk, pos, dist, HEIGHT - 1), message);
+					assertEquals(down, BlocksHelper.downRay(chunk, pos, dist, top), message);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Floating islands: a few random layers of stone with holes, most sections stay empty.
+	 */
+	private static ProtoChunk makeChunk(Random random) {
+		ProtoChunk chunk = new ProtoChunk(new ChunkPos(0, 0), UpgradeData.NO_UPGRADE_DATA);
+		BlockState stone = Blocks.END_STONE.getDefaultState();
+		int islands = random.nextInt(4);
+		for (int i = 0; i < islands; i++) {
+			int bottom = random.nextInt(HEIGHT - 16);
+			int thickness = random.nextInt(16) + 1;
+			for (int x = 0; x < 16; x++) {
+				for (int z = 0; z < 16; z++) {
+					for (int y = bottom; y < bottom + thickness; y++) {
+						if (random.nextInt(4) > 0) {
+							chunk.setBlockState(new BlockPos(x, y, z), stone, false);
+						}
+					}
+				}
+			}
+		}
+		return chunk;
+	}
+	
+	private static int getTop(ProtoChunk chunk, int x, int z) {
+		for (int y = HEIGHT - 1; y >= 0; y--) {
+			if (!chunk.getBlockState(new BlockPos(x, y, z)).isAir()) {
+				return y;
+			}
+		}
+		return -1;
+	}
+}
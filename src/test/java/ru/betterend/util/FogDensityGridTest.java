@@ -0,0 +1,121 @@
+package ru.betterend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ru.betterend.util.FogDensityGrid.DensitySampler;
+
+/**
+ * Checks fog density interpolation and reuse of grid corners.
+ */
+public class FogDensityGridTest {
+	private static final float DELTA = 1E-4F;
+	private static final DensitySampler BILINEAR = (x, z) -> getBilinear(x, z);
+	
+	@Test
+	public void bilinearWeights() {
+		assertEquals(1, FogDensityGrid.interpolate(1, 2, 3, 4, 0, 0), DELTA);
+		assertEquals(2, FogDensityGrid.interpolate(1, 2, 3, 4, 1, 0), DELTA);
+		assertEquals(3, FogDensityGrid.interpolate(1, 2, 3, 4, 0, 1), DELTA);
+		assertEquals(4, FogDensityGrid.interpolate(1, 2, 3, 4, 1, 1), DELTA);
+		assertEquals(2.5F, FogDensityGrid.interpolate(1, 2, 3, 4, 0.5F, 0.5F), DELTA);
+		assertEquals(2.75F, FogDensityGrid.interpolate(1, 2, 3, 4, 0.25F, 0.75F), DELTA);
+	}
+	
+	@Test
+	public void nanCornersSkipped() {
+		assertEquals(3, FogDensityGrid.interpolate(Float.NaN, 2, 3, 4, 0.5F, 0.5F), DELTA);
+		assertEquals(3.25F, FogDensityGrid.interpolate(Float.NaN, Float.NaN, 3, 4, 0.25F, 0.5F), DELTA);
+		assertEquals(1, FogDensityGrid.interpolate(1, Float.NaN, Float.NaN, Float.NaN, 0.3F, 0.9F), DELTA);
+		
+		// Only valid corner has zero weight
+		assertEquals(1, FogDensityGrid.interpolate(1, Float.NaN, Float.NaN, Float.NaN, 1, 0), DELTA);
+		assertEquals(4, FogDensityGrid.interpolate(Float.NaN, Float.NaN, Float.NaN, 4, 0, 0), DELTA);
+	}
+	
+	@Test
+	public void allNaN() {
+		assertTrue(Float.isNaN(FogDensityGrid.interpolate(Float.NaN, Float.NaN, Float.NaN, Float.NaN, 0.5F, 0.5F)));
+		
+		FogDensityGrid grid = new FogDensityGrid(3);
+		assertTrue(Float.isNaN(grid.getDensity(3.5, -12.25, (x, z) -> Float.NaN)));
+	}
+	
+	@Test
+	public void sharedCornersReused() {
+		CountingSampler sampler = new CountingSampler();
+		FogDensityGrid grid = new FogDensityGrid(3);
+		
+		grid.getDensity(1, 1, sampler);
+		assertEquals(4, sampler.reset());
+		
+		grid.getDensity(7.9, 7.9, sampler);
+		assertEquals(0, sampler.reset());
+		
+		// Neighbour cells share two corners
+		grid.getDensity(9, 1, sampler);
+		assertEquals(2, sampler.reset());
+		grid.getDensity(9, 9, sampler);
+		assertEquals(2, sampler.reset());
+		grid.getDensity(1, 9, sampler);
+		assertEquals(2, sampler.reset());
+		
+		// Diagonal cell shares one corner
+		grid.getDensity(-1, 17, sampler);
+		assertEquals(3, sampler.reset());
+		
+		grid.getDensity(100, 100, sampler);
+		assertEquals(4, sampler.reset());
+		
+		grid.invalidate();
+		grid.getDensity(100, 100, sampler);
+		assertEquals(4, sampler.reset());
+	}
+	
+	@Test
+	public void negativeCoordinates() {
+		FogDensityGrid grid = new FogDensityGrid(3);
+		double[] coords = new double[] { -16, -8.5, -8, -7.5, -1, -0.5, -0.001, 0, 0.5, 8, 15.999 };
+		for (double x: coords) {
+			for (double z: coords) {
+				assertEquals(getBilinear(x, z), grid.getDensity(x, z, BILINEAR), DELTA, x + " " + z);
+			}
+		}
+		
+		Random random = new Random(0);
+		for (int i = 0; i < 4096; i++) {
+			double x = random.nextDouble() * 256 - 128;
+			double z = random.nextDouble() * 256 - 128;
+			assertEquals(getBilinear(x, z), grid.getDensity(x, z, BILINEAR), DELTA, x + " " + z);
+		}
+	}
+	
+	/**
+	 * Function that is reproduced exactly by bilinear interpolation from any grid.
+	 */
+	private static float getBilinear(double x, double z) {
+		return (float) (1 + x * 0.01 - z * 0.02 + x * z * 0.0001);
+	}
+	
+	private static class CountingSampler implements DensitySampler {
+		private int count;
+		
+		@Override
+		public float getDensity(int x, int z) {
+			assertEquals(0, x & 7, "Sampled point is not a grid corner");
+			assertEquals(0, z & 7, "Sampled point is not a grid corner");
+			count++;
+			return getBilinear(x, z);
+		}
+		
+		public int reset() {
+			int result = count;
+			count = 0;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package ru.betterend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Compares compiled pattern templates with the old chain of {@link String#replace} calls on mod pattern files.
+ */
+public class PatternTemplateTest {
+	private static final Path PATTERNS = Paths.get("src/main/resources/assets/betterend/patterns");
+	private static final String MISSING = "%mod%";
+	private static final Map<String, String> VALUES = ImmutableMap.<String, String>builder()
+			.put("%parent%", "block/end_stone")
+			.put("%block%", "betterend:mossy_glowshroom_log")
+			.put("%texture%", "betterend:block/aurora_crystal")
+			.put("%base%", "betterend:block/flavolite")
+			.put("%top%", "betterend:block/amber_block_top")
+			.put("%bottom%", "betterend:block/amber_block_bottom")
+			.put("%pillar%", "betterend:block/pythadendron_log")
+			.put("%particle%", "betterend:block/end_lotus_stem")
+			.put("%north%", "betterend:block/north")
+			.put("%south%", "betterend:block/south")
+			.put("%east%", "betterend:block/east")
+			.put("%west%", "betterend:block/west")
+			.put("%up%", "betterend:block/up")
+			.put("%down%", "betterend:block/down")
+			.put("%unused%", "betterend:block/unused")
+			.build();
+	
+	@Test
+	public void patternFilesMatchReplace() throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(PATTERNS)) {
+			files = stream.filter((path) -> path.toString().endsWith(".json")).collect(Collectors.toList());
+		}
+		assertTrue(files.size() > 0, "No pattern files found in " + PATTERNS.toAbsolutePath());
+		
+		boolean hasMissing = false;
+		for (Path file: files) {
+			String text;
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				text = reader.lines().collect(Collectors.joining());
+			}
+			hasMissing |= text.contains(MISSING);
+			
+			PatternTemplate template;
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				template = PatternTemplate.compile(reader);
+			}
+			assertEquals(replaceAll(text, VALUES), template.apply(VALUES), file.toString());
+		}
+		assertTrue(hasMissing, "No pattern file uses " + MISSING);
+	}
+	
+	@Test
+	public void edgePlaceholders() {
+		String[] patterns = new String[] {
+			"",
+			"%block%",
+			"%block%%parent%",
+			"%%block%%",
+			"{\"a\": \"%block%\", \"b\": \"%mod%\", \"c\": \"%Block%\"}%parent%",
+			"100% %block% 50%"
+		};
+		for (String pattern: patterns) {
+			PatternTemplate template = PatternTemplate.compile(new BufferedReader(new StringReader(pattern)));
+			assertEquals(replaceAll(pattern, VALUES), template.apply(VALUES), pattern);
+		}
+	}
+	
+	private static String replaceAll(String text, Map<String, String> values) {
+		for (Entry<String, String> entry: values.entrySet()) {
+			text = text.replace(entry.getKey(), entry.getValue());
+		}
+		return text;
+	}
+}